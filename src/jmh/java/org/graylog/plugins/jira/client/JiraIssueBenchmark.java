@@ -0,0 +1,82 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floreysoft.jmte.Engine;
+import com.github.joschi.jadconfig.util.Duration;
+
+import org.graylog.events.event.EventDto;
+import org.graylog.plugins.jira.event.notifications.JiraBenchmarkFixtures;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issue rendering, hashing and serialization with the default description template.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JiraIssueBenchmark {
+
+    @Param({"0", "50", "500"})
+    public int backlogSize;
+
+    private ObjectMapper objectMapper;
+    private JiraClient client;
+    private JiraEventNotificationConfig config;
+    private EventDto event;
+    private List<JiraBenchmarkFixtures.BacklogMessage> backlog;
+    private JiraIssueFields fields;
+    private JiraIssueFields fieldsWithRegex;
+    private String description;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JiraBenchmarkFixtures.objectMapper();
+        client = new JiraClient(new JiraTemplateRenderer(new Engine()), null, null, null, null, null, null,
+                new JiraMetadataCache(false, Duration.minutes(10), null), null, null,
+                new JiraNotificationMetrics(new MetricRegistry()));
+        config = JiraBenchmarkFixtures.config("\\*Title:\\* (.*)");
+        event = JiraBenchmarkFixtures.event();
+        backlog = JiraBenchmarkFixtures.backlog(backlogSize);
+        fieldsWithRegex = JiraCompiledConfig.of(config).issueFields();
+        fields = JiraCompiledConfig.of(JiraBenchmarkFixtures.config("")).issueFields();
+        description = prepareIssue().description();
+    }
+
+    @Benchmark
+    public JiraIssue prepareIssue() {
+        return client.prepareIssue("benchmark", config, JiraBenchmarkFixtures.model(event, backlog, objectMapper));
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return new JiraIssue(fieldsWithRegex, "Graylog log error", description).toJsonString();
+    }
+
+    @Benchmark
+    public String createGraylogHash() {
+        return new JiraIssue(fields, "Graylog log error", description).createGraylogHash();
+    }
+
+    @Benchmark
+    public String createGraylogHashWithRegex() {
+        return new JiraIssue(fieldsWithRegex, "Graylog log error", description).createGraylogHash();
+    }
+}
@@ -0,0 +1,114 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+
+import org.graylog.events.event.EventDto;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Events and backlogs shaped like the ones of a typical aggregation event definition.
+ */
+public final class JiraBenchmarkFixtures {
+
+    private static final DateTime NOW = new DateTime(2025, 3, 1, 12, 0, DateTimeZone.UTC);
+
+    private JiraBenchmarkFixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper().registerModule(new Jdk8Module()).registerModule(new JodaModule());
+    }
+
+    /**
+     * @param graylogHashRegex regex selecting the hashed part of description, empty to hash the whole description
+     */
+    public static JiraEventNotificationConfig config(final String graylogHashRegex) {
+        return JiraEventNotificationConfig.builder()
+                .jiraURL("https://jira.example.com")
+                .graylogURL("https://graylog.example.com")
+                .credUsername("graylog")
+                .credPassword("secret")
+                .projectKey("OPS")
+                .issueType("Bug")
+                .issueLabels("graylog;alert")
+                .searchGraylogHashField("customfield_10100=Graylog hash")
+                .searchGraylogHashRegex(graylogHashRegex)
+                .build();
+    }
+
+    public static EventDto event() {
+        return EventDto.builder()
+                .id(UUID.randomUUID().toString())
+                .eventDefinitionType("aggregation-v1")
+                .eventDefinitionId("65f1c0a2e4b0a1b2c3d4e5f6")
+                .originContext("urn:graylog:message:es:graylog_42:0f6c1a70-f6b1-11ef-9a3c-0242ac120002")
+                .eventTimestamp(NOW)
+                .processingTimestamp(NOW)
+                .timerangeStart(NOW.minusMinutes(5))
+                .timerangeEnd(NOW)
+                .streams(Set.of("000000000000000000000001"))
+                .sourceStreams(Set.of("000000000000000000000001"))
+                .message("Payment service error rate above threshold: count()=57")
+                .source("graylog-node-1")
+                .keyTuple(List.of("payment-service"))
+                .key("payment-service")
+                .priority(2)
+                .alert(true)
+                .fields(Map.of("service", "payment-service", "environment", "production"))
+                .groupByFields(Map.of("service", "payment-service"))
+                .build();
+    }
+
+    /**
+     * @return backlog messages with the properties of {@link org.graylog2.plugin.MessageSummary}, which cannot be
+     * created without the server's message factory
+     */
+    public static List<BacklogMessage> backlog(final int size) {
+        final List<BacklogMessage> backlog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("service", "payment-service");
+            fields.put("environment", "production");
+            fields.put("level", 3);
+            fields.put("logger_name", "com.example.payment.GatewayClient");
+            fields.put("thread_name", "http-nio-8080-exec-" + (i % 32));
+            fields.put("http_status", 502);
+            fields.put("duration_ms", 1200 + i);
+            fields.put("trace_id", UUID.randomUUID().toString());
+            final String message = "Request to payment gateway failed: upstream returned 502 Bad Gateway after "
+                    + (1200 + i) + " ms (order " + (100000 + i) + ", attempt 3 of 3)";
+            backlog.add(new BacklogMessage("graylog_42", UUID.randomUUID().toString(), "payment-" + (i % 4),
+                    message, NOW.minusSeconds(i), List.of("000000000000000000000001"), fields));
+        }
+        return backlog;
+    }
+
+    /**
+     * @return template model as built by the notification
+     */
+    public static Map<String, Object> model(final EventDto event, final List<?> backlog,
+                                            final ObjectMapper objectMapper) {
+        return new JiraNotificationModel(Optional.empty(), Optional.empty(), event, backlog, objectMapper);
+    }
+
+    public record BacklogMessage(@JsonProperty("index") String index,
+                                 @JsonProperty("id") String id,
+                                 @JsonProperty("source") String source,
+                                 @JsonProperty("message") String message,
+                                 @JsonProperty("timestamp") DateTime timestamp,
+                                 @JsonProperty("stream_ids") List<String> streamIds,
+                                 @JsonProperty("fields") Map<String, Object> fields) {
+    }
+}
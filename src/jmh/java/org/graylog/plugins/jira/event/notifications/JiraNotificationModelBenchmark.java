@@ -0,0 +1,77 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.graylog.events.event.EventDto;
+import org.graylog2.jackson.TypeReferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template model of a notification: the lazy model read the way the default description reads it, compared with
+ * converting the whole model data up front.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JiraNotificationModelBenchmark {
+
+    @Param({"0", "50", "500"})
+    public int backlogSize;
+
+    private ObjectMapper objectMapper;
+    private EventDto event;
+    private List<JiraBenchmarkFixtures.BacklogMessage> backlog;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JiraBenchmarkFixtures.objectMapper();
+        event = JiraBenchmarkFixtures.event();
+        backlog = JiraBenchmarkFixtures.backlog(backlogSize);
+    }
+
+    @Benchmark
+    public void getModel(final Blackhole blackhole) {
+        final Map<String, Object> model = JiraBenchmarkFixtures.model(event, backlog, objectMapper);
+        blackhole.consume(model.get("event_definition_title"));
+        blackhole.consume(model.get("event"));
+        for (final Object message : (List<?>) model.get("backlog")) {
+            blackhole.consume(message);
+        }
+    }
+
+    /**
+     * Whole model converted at once, as it was done before the model became lazy.
+     */
+    @Benchmark
+    public Map<String, Object> getModelEager() {
+        final Map<String, Object> modelData = new LinkedHashMap<>();
+        modelData.put("event_definition_id", "<unknown>");
+        modelData.put("event_definition_type", "<unknown>");
+        modelData.put("event_definition_title", "<unknown>");
+        modelData.put("event_definition_description", "<unknown>");
+        modelData.put("job_definition_id", "<unknown>");
+        modelData.put("job_trigger_id", "<unknown>");
+        modelData.put("event", event);
+        modelData.put("backlog", backlog);
+        return objectMapper.convertValue(modelData, TypeReferences.MAP_STRING_OBJECT);
+    }
+}
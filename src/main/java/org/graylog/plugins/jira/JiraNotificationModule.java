@@ -1,14 +1,45 @@
 package org.graylog.plugins.jira;
 
+import org.graylog.plugins.jira.client.JiraBatchIssueSearcher;
+import org.graylog.plugins.jira.client.JiraBulkIssueCreator;
+import org.graylog.plugins.jira.client.JiraDuplicateAggregator;
+import org.graylog.plugins.jira.client.JiraHttpClientRegistry;
+import org.graylog.plugins.jira.client.JiraIssueCreateLock;
+import org.graylog.plugins.jira.client.JiraMetadataCache;
+import org.graylog.plugins.jira.event.notifications.JiraEventCoalescer;
 import org.graylog.plugins.jira.event.notifications.JiraEventNotification;
 import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
 import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfigEntity;
+import org.graylog.plugins.jira.event.notifications.JiraNotificationDispatcher;
+import org.graylog2.plugin.PluginConfigBean;
 import org.graylog2.plugin.PluginModule;
 
+import java.util.Collections;
+import java.util.Set;
+
 public class JiraNotificationModule extends PluginModule {
 
+    @Override
+    public Set<? extends PluginConfigBean> getConfigBeans() {
+        return Collections.singleton(new JiraPluginConfiguration());
+    }
+
     @Override
     protected void configure() {
+        addConfigBeans();
+
+        bind(JiraHttpClientRegistry.class).asEagerSingleton();
+        bind(JiraBulkIssueCreator.class).asEagerSingleton();
+        bind(JiraBatchIssueSearcher.class).asEagerSingleton();
+        bind(JiraMetadataCache.class).asEagerSingleton();
+        bind(JiraIssueCreateLock.class).asEagerSingleton();
+        bind(JiraDuplicateAggregator.class).asEagerSingleton();
+        bind(JiraEventCoalescer.class).asEagerSingleton();
+        bind(JiraNotificationDispatcher.class).asEagerSingleton();
+        // one service, so that the others are stopped in order
+        bind(JiraPluginServices.class).asEagerSingleton();
+        serviceBinder().addBinding().to(JiraPluginServices.class);
+
         addNotificationType(
             JiraEventNotificationConfig.TYPE_NAME,
             JiraEventNotificationConfig.class,
@@ -0,0 +1,350 @@
+package org.graylog.plugins.jira;
+
+import com.github.joschi.jadconfig.Parameter;
+import com.github.joschi.jadconfig.util.Duration;
+import com.github.joschi.jadconfig.validators.PositiveDurationValidator;
+import com.github.joschi.jadconfig.validators.PositiveIntegerValidator;
+import com.github.joschi.jadconfig.validators.StringNotBlankValidator;
+
+import org.graylog2.plugin.PluginConfigBean;
+
+/**
+ * Node wide settings of the Jira plugin, read from the Graylog server configuration file.
+ * Values are injected into plugin components with {@code @Named(<parameter name>)}.
+ */
+public class JiraPluginConfiguration implements PluginConfigBean {
+
+    public static final String HTTP_CONNECT_TIMEOUT = "jira_http_connect_timeout";
+    public static final String HTTP_READ_TIMEOUT = "jira_http_read_timeout";
+    public static final String HTTP_WRITE_TIMEOUT = "jira_http_write_timeout";
+    public static final String HTTP_MAX_IDLE_CONNECTIONS = "jira_http_max_idle_connections";
+    public static final String HTTP_KEEP_ALIVE = "jira_http_keep_alive";
+    public static final String DEDUP_CACHE_SIZE = "jira_dedup_cache_size";
+    public static final String DEDUP_CACHE_TTL = "jira_dedup_cache_ttl";
+    public static final String DEDUP_INDEX_ENABLED = "jira_dedup_index_enabled";
+    public static final String DEDUP_INDEX_TTL = "jira_dedup_index_ttl";
+    public static final String BULK_CREATE_ENABLED = "jira_bulk_create_enabled";
+    public static final String BULK_CREATE_FLUSH_INTERVAL = "jira_bulk_create_flush_interval";
+    public static final String BULK_CREATE_MAX_BATCH_SIZE = "jira_bulk_create_max_batch_size";
+    public static final String BATCH_SEARCH_ENABLED = "jira_batch_search_enabled";
+    public static final String BATCH_SEARCH_FLUSH_INTERVAL = "jira_batch_search_flush_interval";
+    public static final String BATCH_SEARCH_MAX_BATCH_SIZE = "jira_batch_search_max_batch_size";
+    public static final String CREATE_LOCK_ENABLED = "jira_create_lock_enabled";
+    public static final String CREATE_LOCK_TIMEOUT = "jira_create_lock_timeout";
+    public static final String METADATA_CACHE_ENABLED = "jira_metadata_cache_enabled";
+    public static final String METADATA_REFRESH_INTERVAL = "jira_metadata_refresh_interval";
+    public static final String DISPATCH_ASYNC = "jira_dispatch_async";
+    public static final String DISPATCH_QUEUE_SIZE = "jira_dispatch_queue_size";
+    public static final String DISPATCH_WORKERS = "jira_dispatch_workers";
+    public static final String DISPATCH_OVERFLOW_POLICY = "jira_dispatch_overflow_policy";
+    public static final String DISPATCH_BLOCK_TIMEOUT = "jira_dispatch_block_timeout";
+    public static final String DISPATCH_SHUTDOWN_TIMEOUT = "jira_dispatch_shutdown_timeout";
+    public static final String DISPATCH_RETRY_ATTEMPTS = "jira_dispatch_retry_attempts";
+    public static final String DISPATCH_RETRY_BACKOFF = "jira_dispatch_retry_backoff";
+    public static final String RETRY_MAX_ATTEMPTS = "jira_retry_max_attempts";
+    public static final String RETRY_INITIAL_BACKOFF = "jira_retry_initial_backoff";
+    public static final String RETRY_MAX_BACKOFF = "jira_retry_max_backoff";
+    public static final String RETRY_MAX_ELAPSED = "jira_retry_max_elapsed";
+    public static final String RATE_LIMIT = "jira_rate_limit";
+    public static final String RATE_LIMIT_BURST = "jira_rate_limit_burst";
+    public static final String RATE_LIMIT_MAX_WAIT = "jira_rate_limit_max_wait";
+    public static final String CIRCUIT_BREAKER_ENABLED = "jira_circuit_breaker_enabled";
+    public static final String CIRCUIT_FAILURE_RATE = "jira_circuit_failure_rate";
+    public static final String CIRCUIT_SLOW_CALL_RATE = "jira_circuit_slow_call_rate";
+    public static final String CIRCUIT_SLOW_CALL_DURATION = "jira_circuit_slow_call_duration";
+    public static final String CIRCUIT_WINDOW_SIZE = "jira_circuit_window_size";
+    public static final String CIRCUIT_MINIMUM_CALLS = "jira_circuit_minimum_calls";
+    public static final String CIRCUIT_COOLDOWN = "jira_circuit_cooldown";
+
+    @Parameter(value = HTTP_CONNECT_TIMEOUT, validators = PositiveDurationValidator.class)
+    private Duration httpConnectTimeout = Duration.seconds(10);
+
+    @Parameter(value = HTTP_READ_TIMEOUT, validators = PositiveDurationValidator.class)
+    private Duration httpReadTimeout = Duration.seconds(30);
+
+    @Parameter(value = HTTP_WRITE_TIMEOUT, validators = PositiveDurationValidator.class)
+    private Duration httpWriteTimeout = Duration.seconds(30);
+
+    @Parameter(value = HTTP_MAX_IDLE_CONNECTIONS, validators = PositiveIntegerValidator.class)
+    private int httpMaxIdleConnections = 16;
+
+    @Parameter(value = HTTP_KEEP_ALIVE, validators = PositiveDurationValidator.class)
+    private Duration httpKeepAlive = Duration.minutes(5);
+
+    @Parameter(value = DEDUP_CACHE_SIZE, validators = PositiveIntegerValidator.class)
+    private int dedupCacheSize = 10000;
+
+    @Parameter(value = DEDUP_CACHE_TTL, validators = PositiveDurationValidator.class)
+    private Duration dedupCacheTtl = Duration.hours(1);
+
+    @Parameter(value = DEDUP_INDEX_ENABLED)
+    private boolean dedupIndexEnabled = false;
+
+    @Parameter(value = DEDUP_INDEX_TTL, validators = PositiveDurationValidator.class)
+    private Duration dedupIndexTtl = Duration.hours(1);
+
+    @Parameter(value = BULK_CREATE_ENABLED)
+    private boolean bulkCreateEnabled = false;
+
+    @Parameter(value = BULK_CREATE_FLUSH_INTERVAL, validators = PositiveDurationValidator.class)
+    private Duration bulkCreateFlushInterval = Duration.milliseconds(250);
+
+    // Jira accepts at most 50 issues in one bulk request
+    @Parameter(value = BULK_CREATE_MAX_BATCH_SIZE, validators = PositiveIntegerValidator.class)
+    private int bulkCreateMaxBatchSize = 50;
+
+    @Parameter(value = BATCH_SEARCH_ENABLED)
+    private boolean batchSearchEnabled = false;
+
+    @Parameter(value = BATCH_SEARCH_FLUSH_INTERVAL, validators = PositiveDurationValidator.class)
+    private Duration batchSearchFlushInterval = Duration.milliseconds(100);
+
+    @Parameter(value = BATCH_SEARCH_MAX_BATCH_SIZE, validators = PositiveIntegerValidator.class)
+    private int batchSearchMaxBatchSize = 50;
+
+    @Parameter(value = CREATE_LOCK_ENABLED)
+    private boolean createLockEnabled = true;
+
+    @Parameter(value = CREATE_LOCK_TIMEOUT, validators = PositiveDurationValidator.class)
+    private Duration createLockTimeout = Duration.seconds(30);
+
+    @Parameter(value = METADATA_CACHE_ENABLED)
+    private boolean metadataCacheEnabled = false;
+
+    @Parameter(value = METADATA_REFRESH_INTERVAL, validators = PositiveDurationValidator.class)
+    private Duration metadataRefreshInterval = Duration.minutes(10);
+
+    @Parameter(value = DISPATCH_ASYNC)
+    private boolean dispatchAsync = false;
+
+    @Parameter(value = DISPATCH_QUEUE_SIZE, validators = PositiveIntegerValidator.class)
+    private int dispatchQueueSize = 1000;
+
+    @Parameter(value = DISPATCH_WORKERS, validators = PositiveIntegerValidator.class)
+    private int dispatchWorkers = 4;
+
+    // block, drop_oldest or spill
+    @Parameter(value = DISPATCH_OVERFLOW_POLICY, validators = StringNotBlankValidator.class)
+    private String dispatchOverflowPolicy = "block";
+
+    @Parameter(value = DISPATCH_BLOCK_TIMEOUT, validators = PositiveDurationValidator.class)
+    private Duration dispatchBlockTimeout = Duration.seconds(10);
+
+    @Parameter(value = DISPATCH_SHUTDOWN_TIMEOUT, validators = PositiveDurationValidator.class)
+    private Duration dispatchShutdownTimeout = Duration.seconds(30);
+
+    @Parameter(value = DISPATCH_RETRY_ATTEMPTS, validators = PositiveIntegerValidator.class)
+    private int dispatchRetryAttempts = 5;
+
+    @Parameter(value = DISPATCH_RETRY_BACKOFF, validators = PositiveDurationValidator.class)
+    private Duration dispatchRetryBackoff = Duration.seconds(30);
+
+    @Parameter(value = RETRY_MAX_ATTEMPTS, validators = PositiveIntegerValidator.class)
+    private int retryMaxAttempts = 3;
+
+    @Parameter(value = RETRY_INITIAL_BACKOFF, validators = PositiveDurationValidator.class)
+    private Duration retryInitialBackoff = Duration.milliseconds(500);
+
+    @Parameter(value = RETRY_MAX_BACKOFF, validators = PositiveDurationValidator.class)
+    private Duration retryMaxBackoff = Duration.seconds(10);
+
+    @Parameter(value = RETRY_MAX_ELAPSED, validators = PositiveDurationValidator.class)
+    private Duration retryMaxElapsed = Duration.seconds(30);
+
+    // requests per second to one Jira instance, 0 disables the limit
+    @Parameter(value = RATE_LIMIT)
+    private int rateLimit = 20;
+
+    @Parameter(value = RATE_LIMIT_BURST, validators = PositiveIntegerValidator.class)
+    private int rateLimitBurst = 40;
+
+    @Parameter(value = RATE_LIMIT_MAX_WAIT, validators = PositiveDurationValidator.class)
+    private Duration rateLimitMaxWait = Duration.seconds(5);
+
+    @Parameter(value = CIRCUIT_BREAKER_ENABLED)
+    private boolean circuitBreakerEnabled = true;
+
+    // percent of calls in the window
+    @Parameter(value = CIRCUIT_FAILURE_RATE, validators = PositiveIntegerValidator.class)
+    private int circuitFailureRate = 50;
+
+    // percent of calls in the window
+    @Parameter(value = CIRCUIT_SLOW_CALL_RATE, validators = PositiveIntegerValidator.class)
+    private int circuitSlowCallRate = 100;
+
+    @Parameter(value = CIRCUIT_SLOW_CALL_DURATION, validators = PositiveDurationValidator.class)
+    private Duration circuitSlowCallDuration = Duration.seconds(10);
+
+    @Parameter(value = CIRCUIT_WINDOW_SIZE, validators = PositiveIntegerValidator.class)
+    private int circuitWindowSize = 20;
+
+    @Parameter(value = CIRCUIT_MINIMUM_CALLS, validators = PositiveIntegerValidator.class)
+    private int circuitMinimumCalls = 10;
+
+    @Parameter(value = CIRCUIT_COOLDOWN, validators = PositiveDurationValidator.class)
+    private Duration circuitCooldown = Duration.seconds(30);
+
+    public Duration getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    public Duration getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    public Duration getHttpWriteTimeout() {
+        return httpWriteTimeout;
+    }
+
+    public int getHttpMaxIdleConnections() {
+        return httpMaxIdleConnections;
+    }
+
+    public Duration getHttpKeepAlive() {
+        return httpKeepAlive;
+    }
+
+    public int getDedupCacheSize() {
+        return dedupCacheSize;
+    }
+
+    public Duration getDedupCacheTtl() {
+        return dedupCacheTtl;
+    }
+
+    public boolean isDedupIndexEnabled() {
+        return dedupIndexEnabled;
+    }
+
+    public Duration getDedupIndexTtl() {
+        return dedupIndexTtl;
+    }
+
+    public boolean isBulkCreateEnabled() {
+        return bulkCreateEnabled;
+    }
+
+    public Duration getBulkCreateFlushInterval() {
+        return bulkCreateFlushInterval;
+    }
+
+    public int getBulkCreateMaxBatchSize() {
+        return bulkCreateMaxBatchSize;
+    }
+
+    public boolean isBatchSearchEnabled() {
+        return batchSearchEnabled;
+    }
+
+    public Duration getBatchSearchFlushInterval() {
+        return batchSearchFlushInterval;
+    }
+
+    public int getBatchSearchMaxBatchSize() {
+        return batchSearchMaxBatchSize;
+    }
+
+    public boolean isCreateLockEnabled() {
+        return createLockEnabled;
+    }
+
+    public Duration getCreateLockTimeout() {
+        return createLockTimeout;
+    }
+
+    public boolean isMetadataCacheEnabled() {
+        return metadataCacheEnabled;
+    }
+
+    public Duration getMetadataRefreshInterval() {
+        return metadataRefreshInterval;
+    }
+
+    public boolean isDispatchAsync() {
+        return dispatchAsync;
+    }
+
+    public int getDispatchQueueSize() {
+        return dispatchQueueSize;
+    }
+
+    public int getDispatchWorkers() {
+        return dispatchWorkers;
+    }
+
+    public String getDispatchOverflowPolicy() {
+        return dispatchOverflowPolicy;
+    }
+
+    public Duration getDispatchBlockTimeout() {
+        return dispatchBlockTimeout;
+    }
+
+    public Duration getDispatchShutdownTimeout() {
+        return dispatchShutdownTimeout;
+    }
+
+    public int getDispatchRetryAttempts() {
+        return dispatchRetryAttempts;
+    }
+
+    public Duration getDispatchRetryBackoff() {
+        return dispatchRetryBackoff;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public Duration getRetryInitialBackoff() {
+        return retryInitialBackoff;
+    }
+
+    public Duration getRetryMaxBackoff() {
+        return retryMaxBackoff;
+    }
+
+    public Duration getRetryMaxElapsed() {
+        return retryMaxElapsed;
+    }
+
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public Duration getRateLimitMaxWait() {
+        return rateLimitMaxWait;
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    public int getCircuitFailureRate() {
+        return circuitFailureRate;
+    }
+
+    public int getCircuitSlowCallRate() {
+        return circuitSlowCallRate;
+    }
+
+    public Duration getCircuitSlowCallDuration() {
+        return circuitSlowCallDuration;
+    }
+
+    public int getCircuitWindowSize() {
+        return circuitWindowSize;
+    }
+
+    public int getCircuitMinimumCalls() {
+        return circuitMinimumCalls;
+    }
+
+    public Duration getCircuitCooldown() {
+        return circuitCooldown;
+    }
+}
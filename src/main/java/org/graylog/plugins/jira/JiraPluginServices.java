@@ -0,0 +1,63 @@
+package org.graylog.plugins.jira;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.Service;
+
+import org.graylog.plugins.jira.client.JiraBatchIssueSearcher;
+import org.graylog.plugins.jira.client.JiraBulkIssueCreator;
+import org.graylog.plugins.jira.client.JiraDuplicateAggregator;
+import org.graylog.plugins.jira.client.JiraHttpClientRegistry;
+import org.graylog.plugins.jira.client.JiraIssueCreateLock;
+import org.graylog.plugins.jira.client.JiraMetadataCache;
+import org.graylog.plugins.jira.event.notifications.JiraEventCoalescer;
+import org.graylog.plugins.jira.event.notifications.JiraNotificationDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Starts the plugin's services one after another and stops them in reverse order. Graylog stops its services in
+ * parallel, then work still being flushed (queued notifications, coalesce windows, duplicate counts) could reach
+ * a service which has already stopped.
+ */
+@Singleton
+public class JiraPluginServices extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraPluginServices.class);
+
+    // each one only sends work to the ones before it
+    private final ImmutableList<Service> services;
+
+    @Inject
+    public JiraPluginServices(final JiraHttpClientRegistry clientRegistry,
+                              final JiraIssueCreateLock createLock,
+                              final JiraBulkIssueCreator bulkIssueCreator,
+                              final JiraBatchIssueSearcher batchIssueSearcher,
+                              final JiraMetadataCache metadataCache,
+                              final JiraDuplicateAggregator duplicateAggregator,
+                              final JiraEventCoalescer coalescer,
+                              final JiraNotificationDispatcher dispatcher) {
+        this.services = ImmutableList.of(clientRegistry, createLock, bulkIssueCreator, batchIssueSearcher, metadataCache,
+                duplicateAggregator, coalescer, dispatcher);
+    }
+
+    @Override
+    protected void startUp() {
+        services.forEach(service -> service.startAsync().awaitRunning());
+    }
+
+    @Override
+    protected void shutDown() {
+        for (final Service service : services.reverse()) {
+            try {
+                service.stopAsync().awaitTerminated();
+            } catch (final IllegalStateException e) {
+                // failed service, the others are stopped nevertheless
+                LOG.warn("Failed to stop {}", service, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.graylog.plugins.jira.client;
+
+import java.util.Locale;
+
+/**
+ * How requests to Jira are authenticated.
+ */
+public enum JiraAuthType {
+    /**
+     * Username and password sent with every request.
+     */
+    BASIC,
+    /**
+     * Personal access token sent with every request, taken from the password.
+     */
+    BEARER,
+    /**
+     * Username and password sent only to log in, the session cookie is sent with the requests.
+     */
+    SESSION;
+
+    /**
+     * @return authentication of given name (case insensitive) or null when there is none
+     */
+    public static JiraAuthType parse(final String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
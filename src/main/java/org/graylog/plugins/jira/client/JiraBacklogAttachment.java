@@ -0,0 +1,77 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Backlog messages as gzipped NDJSON attachment, one message per line. The file is written straight from the
+ * backlog into the request while it is sent.
+ */
+final class JiraBacklogAttachment {
+
+    static final String FILE_NAME = "backlog.ndjson.gz";
+
+    private static final MediaType GZIP = MediaType.parse("application/gzip");
+
+    private JiraBacklogAttachment() {
+    }
+
+    /**
+     * @return multipart body for the issue attachments endpoint
+     */
+    static RequestBody requestBody(final List<?> backlog, final ObjectMapper objectMapper) {
+        return new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("file", FILE_NAME, new RequestBody() {
+                    @Override
+                    public MediaType contentType() {
+                        return GZIP;
+                    }
+
+                    @Override
+                    public void writeTo(final BufferedSink sink) throws IOException {
+                        write(backlog, objectMapper, sink);
+                    }
+                })
+                .build();
+    }
+
+    private static void write(final List<?> backlog, final ObjectMapper objectMapper,
+                              final BufferedSink sink) throws IOException {
+        final ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // the sink belongs to the multipart body, closing the gzip stream must not close it
+        final OutputStream target = new FilterOutputStream(sink.outputStream()) {
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        try (GZIPOutputStream gzip = new GZIPOutputStream(target);
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(gzip, JsonEncoding.UTF8)) {
+            gen.setRootValueSeparator(null);
+            for (final Object message : backlog) {
+                writer.writeValue(gen, message);
+                gen.writeRaw('\n');
+            }
+        }
+    }
+}
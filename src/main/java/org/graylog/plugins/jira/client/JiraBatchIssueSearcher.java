@@ -0,0 +1,272 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Gathers Graylog hashes waiting for a duplicate search for a short flush interval (or until the batch is full) and
+ * looks them up with a single JQL search. Each caller gets back the ID of its duplicate issue, or null if there is none.
+ */
+@Singleton
+public class JiraBatchIssueSearcher extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraBatchIssueSearcher.class);
+    // longer JQL is split into several searches, well below what Jira and proxies in between accept
+    static final int MAX_JQL_LENGTH = 4000;
+    // default page size limit of Jira
+    private static final int MAX_RESULTS = 100;
+
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final ObjectMapper objectMapper = JiraResponseReader.OBJECT_MAPPER;
+    private final ConcurrentMap<BatchKey, List<PendingSearch>> batches = new ConcurrentHashMap<>();
+    // only times the flushes, batches are sent by the sender so that slow requests do not hold up other flushes
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("jira-batch-search-timer-%d").setDaemon(true).build());
+    private final ExecutorService sender = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("jira-batch-search-%d").setDaemon(true).build());
+
+    @Inject
+    public JiraBatchIssueSearcher(@Named(JiraPluginConfiguration.BATCH_SEARCH_ENABLED) final boolean enabled,
+                                  @Named(JiraPluginConfiguration.BATCH_SEARCH_FLUSH_INTERVAL) final Duration flushInterval,
+                                  @Named(JiraPluginConfiguration.BATCH_SEARCH_MAX_BATCH_SIZE) final int maxBatchSize) {
+        this.enabled = enabled;
+        this.flushIntervalMillis = flushInterval.toMilliseconds();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Blocks until the batch containing given hash has been searched.
+     *
+     * @return ID of duplicate issue or null
+     */
+    public String search(final OkHttpClient client, final JiraCompiledConfig compiled, final String graylogHash) {
+        try {
+            return submit(client, compiled, graylogHash).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraClientException("Interrupted while waiting for Jira (issue batch search).", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof JiraClientException jiraClientException) {
+                throw jiraClientException;
+            }
+            throw new JiraClientException("Jira (issue batch search) failed.", e.getCause());
+        }
+    }
+
+    CompletableFuture<String> submit(final OkHttpClient client, final JiraCompiledConfig compiled,
+                                     final String graylogHash) {
+        final BatchKey key = new BatchKey(client, compiled);
+        final PendingSearch pending = new PendingSearch(graylogHash, new CompletableFuture<>());
+
+        final List<PendingSearch> full = new ArrayList<>();
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        batches.compute(key, (k, batch) -> {
+            final List<PendingSearch> current = batch == null ? new ArrayList<>() : batch;
+            opened.set(batch == null);
+            current.add(pending);
+            if (current.size() >= maxBatchSize) {
+                full.addAll(current);
+                return null;
+            }
+            return current;
+        });
+
+        try {
+            if (!full.isEmpty()) {
+                sender.execute(() -> send(key, full));
+            } else if (opened.get()) {
+                scheduler.schedule(() -> flushLater(key), flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (final RejectedExecutionException e) {
+            // shut down meanwhile, the batch would never be sent
+            final List<PendingSearch> rejected = full.isEmpty() ? batches.remove(key) : full;
+            if (rejected != null) {
+                final JiraClientException ex = JiraClientException.transientFailure(
+                        "Jira (issue batch search) is shut down.", e);
+                rejected.forEach(failed -> failed.result().completeExceptionally(ex));
+            }
+        }
+        return pending.result();
+    }
+
+    @Override
+    protected void startUp() {
+        // batches are opened by incoming searches
+    }
+
+    @Override
+    protected void shutDown() {
+        // send open batches, callers are waiting for them
+        scheduler.shutdownNow();
+        batches.keySet().forEach(this::flush);
+        sender.shutdown();
+    }
+
+    private void flushLater(final BatchKey key) {
+        try {
+            sender.execute(() -> flush(key));
+        } catch (final RejectedExecutionException e) {
+            // shut down meanwhile
+            flush(key);
+        }
+    }
+
+    private void flush(final BatchKey key) {
+        final List<PendingSearch> batch = batches.remove(key);
+        if (batch != null && !batch.isEmpty()) {
+            send(key, batch);
+        }
+    }
+
+    private void send(final BatchKey key, final List<PendingSearch> batch) {
+        // the same hash may be waited for by several events
+        final Map<String, List<CompletableFuture<String>>> waiting = new LinkedHashMap<>();
+        for (final PendingSearch pending : batch) {
+            waiting.computeIfAbsent(pending.graylogHash(), hash -> new ArrayList<>()).add(pending.result());
+        }
+        LOG.debug("Searching {} Graylog hash(es) in Jira", waiting.size());
+
+        try {
+            for (final List<String> chunk : chunks(key.compiled(), new ArrayList<>(waiting.keySet()))) {
+                final Map<String, String> found = search(key, chunk);
+                for (final String graylogHash : chunk) {
+                    waiting.remove(graylogHash).forEach(result -> result.complete(found.get(graylogHash)));
+                }
+            }
+        } catch (final JiraClientException ex) {
+            failAll(waiting, ex);
+        } catch (final RuntimeException ex) {
+            failAll(waiting, new JiraClientException("Failed to process Jira (issue batch search) response.", ex));
+        }
+    }
+
+    /**
+     * @return hashes split into groups whose JQL stays within {@link #MAX_JQL_LENGTH}
+     */
+    private static List<List<String>> chunks(final JiraCompiledConfig compiled, final List<String> graylogHashes) {
+        final List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        for (final String graylogHash : graylogHashes) {
+            chunk.add(graylogHash);
+            if (chunk.size() > 1 && compiled.duplicateSearchJQL(chunk).length() > MAX_JQL_LENGTH) {
+                chunk.remove(chunk.size() - 1);
+                chunks.add(chunk);
+                chunk = new ArrayList<>(List.of(graylogHash));
+            }
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * {@code ~} matches issues whose field merely contains the hash, so found issues are matched to the hashes by
+     * the field value. A full page may leave searched hashes out, those are searched again.
+     *
+     * @return issue ID by Graylog hash, for the hashes having a duplicate issue
+     */
+    private Map<String, String> search(final BatchKey key, final List<String> graylogHashes) {
+        final String fieldId = key.compiled().graylogHashFieldId();
+        final Map<String, String> found = new HashMap<>();
+        List<String> remaining = graylogHashes;
+        while (!remaining.isEmpty()) {
+            final JsonNode response = post(key, key.compiled().duplicateSearchJQL(remaining), fieldId);
+            final JsonNode issues = response.path("issues");
+            boolean matched = false;
+            for (final JsonNode issue : issues) {
+                final String graylogHash = issue.path("fields").path(fieldId).asText().trim();
+                if (remaining.contains(graylogHash) && found.putIfAbsent(graylogHash, issue.path("id").asText()) == null) {
+                    matched = true;
+                }
+            }
+            if (!matched || response.path("total").asInt() <= issues.size()) {
+                break;
+            }
+            remaining = remaining.stream().filter(graylogHash -> !found.containsKey(graylogHash)).toList();
+        }
+        return found;
+    }
+
+    private JsonNode post(final BatchKey key, final String jql, final String fieldId) {
+        final RequestBody body;
+        try {
+            body = RequestBody.create(objectMapper.writeValueAsString(Map.of(
+                    "jql", jql,
+                    "startAt", 0,
+                    "maxResults", MAX_RESULTS,
+                    "fields", List.of("id", fieldId))), JiraIssueSerializer.JSON);
+        } catch (final JacksonException ex) {
+            throw new IllegalStateException("Failed to build Jira search payload as JSON format.", ex);
+        }
+        final Request req = new Request.Builder()
+                .url(key.compiled().searchURL())
+                .headers(key.compiled().authHeaders())
+                .post(body)
+                .build();
+
+        try (final Response res = key.client().newCall(req).execute()) {
+            if (!res.isSuccessful() || res.body() == null) {
+                throw JiraClientException.forStatus("Jira (issue batch search) returned client error. HTTP Status="
+                        + res.code() + ", response=" + JiraResponseReader.errorBody(res.body()), res.code(),
+                        res.header("Retry-After"));
+            }
+            // a page of issues with two fields each, small enough to be read as a whole
+            return JiraResponseReader.tree(res.body().byteStream());
+        } catch (final JacksonException ex) {
+            throw new JiraClientException("Failed to read Jira (issue batch search) response body.", ex);
+        } catch (final IOException ex) {
+            throw JiraClientException.forIOException("Failed to send POST request to Jira (issue batch search).", ex);
+        }
+    }
+
+    private void failAll(final Map<String, List<CompletableFuture<String>>> waiting, final JiraClientException ex) {
+        waiting.values().forEach(results -> results.forEach(result -> result.completeExceptionally(ex)));
+    }
+
+    /**
+     * Compiled configs are shared per config, so searches of the same notification end up in one batch.
+     */
+    private record BatchKey(OkHttpClient client, JiraCompiledConfig compiled) {
+    }
+
+    private record PendingSearch(String graylogHash, CompletableFuture<String> result) {
+    }
+}
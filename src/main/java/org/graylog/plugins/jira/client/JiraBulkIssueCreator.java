@@ -0,0 +1,232 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Gathers issues waiting to be created for a short flush interval (or until the batch is full) and creates them
+ * with a single request to Jira's bulk create endpoint. Each caller gets back its own issue ID or error.
+ */
+@Singleton
+public class JiraBulkIssueCreator extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraBulkIssueCreator.class);
+
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final ConcurrentMap<BatchKey, List<PendingIssue>> batches = new ConcurrentHashMap<>();
+    // only times the flushes, batches are sent by the sender so that slow requests do not hold up other flushes
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("jira-bulk-create-timer-%d").setDaemon(true).build());
+    private final ExecutorService sender = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("jira-bulk-create-%d").setDaemon(true).build());
+
+    @Inject
+    public JiraBulkIssueCreator(@Named(JiraPluginConfiguration.BULK_CREATE_ENABLED) final boolean enabled,
+                                @Named(JiraPluginConfiguration.BULK_CREATE_FLUSH_INTERVAL) final Duration flushInterval,
+                                @Named(JiraPluginConfiguration.BULK_CREATE_MAX_BATCH_SIZE) final int maxBatchSize) {
+        this.enabled = enabled;
+        this.flushIntervalMillis = flushInterval.toMilliseconds();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Blocks until the batch containing given issue has been sent.
+     *
+     * @return ID of created issue
+     */
+    public String create(final OkHttpClient client, final HttpUrl bulkURL, final Headers authHeaders,
+                         final JiraIssue jiraIssue) {
+        try {
+            return submit(client, bulkURL, authHeaders, jiraIssue).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraClientException("Interrupted while waiting for Jira (issue bulk create).", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof JiraClientException jiraClientException) {
+                throw jiraClientException;
+            }
+            throw new JiraClientException("Jira (issue bulk create) failed.", e.getCause());
+        }
+    }
+
+    CompletableFuture<String> submit(final OkHttpClient client, final HttpUrl bulkURL, final Headers authHeaders,
+                                     final JiraIssue jiraIssue) {
+        final BatchKey key = new BatchKey(client, bulkURL, authHeaders);
+        final PendingIssue pending = new PendingIssue(jiraIssue, new CompletableFuture<>());
+
+        final List<PendingIssue> full = new ArrayList<>();
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        batches.compute(key, (k, batch) -> {
+            final List<PendingIssue> current = batch == null ? new ArrayList<>() : batch;
+            opened.set(batch == null);
+            current.add(pending);
+            if (current.size() >= maxBatchSize) {
+                full.addAll(current);
+                return null;
+            }
+            return current;
+        });
+
+        try {
+            if (!full.isEmpty()) {
+                sender.execute(() -> send(key, full));
+            } else if (opened.get()) {
+                scheduler.schedule(() -> flushLater(key), flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (final RejectedExecutionException e) {
+            // shut down meanwhile, the batch would never be sent
+            final List<PendingIssue> rejected = full.isEmpty() ? batches.remove(key) : full;
+            if (rejected != null) {
+                final JiraClientException ex = JiraClientException.transientFailure(
+                        "Jira (issue bulk create) is shut down.", e);
+                rejected.forEach(failed -> failed.result().completeExceptionally(ex));
+            }
+        }
+        return pending.result();
+    }
+
+    @Override
+    protected void startUp() {
+        // batches are opened by incoming issues
+    }
+
+    @Override
+    protected void shutDown() {
+        // send open batches, callers are waiting for them
+        scheduler.shutdownNow();
+        batches.keySet().forEach(this::flush);
+        sender.shutdown();
+    }
+
+    private void flushLater(final BatchKey key) {
+        try {
+            sender.execute(() -> flush(key));
+        } catch (final RejectedExecutionException e) {
+            // shut down meanwhile
+            flush(key);
+        }
+    }
+
+    private void flush(final BatchKey key) {
+        final List<PendingIssue> batch = batches.remove(key);
+        if (batch != null && !batch.isEmpty()) {
+            send(key, batch);
+        }
+    }
+
+    private void send(final BatchKey key, final List<PendingIssue> batch) {
+        final Request req = new Request.Builder()
+                .url(key.bulkURL())
+                .headers(key.authHeaders())
+                .post(JiraIssueSerializer.bulkRequestBody(batch.stream().map(PendingIssue::jiraIssue).toList()))
+                .build();
+        LOG.debug("Sending {} issue(s) to Jira bulk create", batch.size());
+
+        try (final Response res = key.client().newCall(req).execute()) {
+            if (res.isSuccessful() && res.body() != null) {
+                complete(batch, JiraResponseReader.tree(res.body().byteStream()));
+                return;
+            }
+            // rejected issues are listed in errors, other failures fail the whole batch
+            final String body = JiraResponseReader.errorBody(res.body());
+            final JsonNode response = errorResponse(body);
+            if (response == null || !response.has("errors")) {
+                failAll(batch, JiraClientException.forStatus("Jira (issue bulk create) returned client error. HTTP Status="
+                        + res.code() + ", response=" + body, res.code(), res.header("Retry-After")));
+                return;
+            }
+            complete(batch, response);
+        } catch (final JacksonException ex) {
+            failAll(batch, new JiraClientException("Failed to read Jira (issue bulk create) response body.", ex));
+        } catch (final IOException ex) {
+            failAll(batch, JiraClientException.forIOException("Failed to send POST request to Jira (issue bulk create).",
+                    ex));
+        } catch (final RuntimeException ex) {
+            failAll(batch, new JiraClientException("Failed to process Jira (issue bulk create) response.", ex));
+        }
+    }
+
+    /**
+     * @return error response as JSON, or null when it is not JSON (e.g. sent by a proxy) or was cut
+     */
+    private static JsonNode errorResponse(final String body) {
+        try {
+            return body.isEmpty() ? null : JiraResponseReader.OBJECT_MAPPER.readTree(body);
+        } catch (final JacksonException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Created issues are listed in request order, skipping elements listed in errors by their index.
+     */
+    private void complete(final List<PendingIssue> batch, final JsonNode response) {
+        final Map<Integer, JsonNode> errors = new HashMap<>();
+        for (final JsonNode error : response.path("errors")) {
+            errors.put(error.path("failedElementNumber").asInt(), error);
+        }
+        final JsonNode issues = response.path("issues");
+        int created = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            final CompletableFuture<String> result = batch.get(i).result();
+            final JsonNode error = errors.get(i);
+            if (error != null) {
+                final int status = error.path("status").asInt();
+                result.completeExceptionally(JiraClientException.forStatus("Jira (issue bulk create) rejected issue."
+                        + " HTTP Status=" + status + ", response=" + error.path("elementErrors"), status, null));
+            } else if (created < issues.size()) {
+                result.complete(issues.get(created++).path("id").asText());
+            } else {
+                result.completeExceptionally(new JiraClientException("Jira (issue bulk create) returned no issue."));
+            }
+        }
+    }
+
+    private void failAll(final List<PendingIssue> batch, final JiraClientException ex) {
+        batch.forEach(pending -> pending.result().completeExceptionally(ex));
+    }
+
+    private record BatchKey(OkHttpClient client, HttpUrl bulkURL, Headers authHeaders) {
+    }
+
+    private record PendingIssue(JiraIssue jiraIssue, CompletableFuture<String> result) {
+    }
+}
@@ -0,0 +1,202 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog2.shared.metrics.MetricUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Circuit breaker per Jira instance (scheme, host and port). It opens when too many of the recent calls failed
+ * (I/O error or server error) or were slow, rejects calls during the cooldown and then lets a single trial call
+ * through which decides whether it closes again. The rate limiter runs before the breaker, so requests it delays
+ * or rejects are neither timed nor counted, nor do they take the trial call.
+ */
+@Singleton
+public class JiraCircuitBreaker implements Interceptor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean enabled;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallMillis;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long cooldownMillis;
+    private final MetricRegistry metricRegistry;
+    private final LongSupplier currentMillis;
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    @Inject
+    public JiraCircuitBreaker(@Named(JiraPluginConfiguration.CIRCUIT_BREAKER_ENABLED) final boolean enabled,
+                              @Named(JiraPluginConfiguration.CIRCUIT_FAILURE_RATE) final int failureRateThreshold,
+                              @Named(JiraPluginConfiguration.CIRCUIT_SLOW_CALL_RATE) final int slowCallRateThreshold,
+                              @Named(JiraPluginConfiguration.CIRCUIT_SLOW_CALL_DURATION) final Duration slowCallDuration,
+                              @Named(JiraPluginConfiguration.CIRCUIT_WINDOW_SIZE) final int windowSize,
+                              @Named(JiraPluginConfiguration.CIRCUIT_MINIMUM_CALLS) final int minimumCalls,
+                              @Named(JiraPluginConfiguration.CIRCUIT_COOLDOWN) final Duration cooldown,
+                              final MetricRegistry metricRegistry) {
+        this(enabled, failureRateThreshold, slowCallRateThreshold, slowCallDuration, windowSize, minimumCalls,
+                cooldown, metricRegistry, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    JiraCircuitBreaker(final boolean enabled, final int failureRateThreshold, final int slowCallRateThreshold,
+                       final Duration slowCallDuration, final int windowSize, final int minimumCalls,
+                       final Duration cooldown, final MetricRegistry metricRegistry, final LongSupplier currentMillis) {
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallMillis = slowCallDuration.toMilliseconds();
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.cooldownMillis = cooldown.toMilliseconds();
+        this.metricRegistry = metricRegistry;
+        this.currentMillis = currentMillis;
+        this.rejected = metricRegistry.counter(MetricRegistry.name(JiraCircuitBreaker.class, "rejected"));
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        if (!enabled) {
+            return chain.proceed(chain.request());
+        }
+        final HttpUrl url = chain.request().url();
+        final Circuit circuit = circuitFor(url);
+        final long retryAfter = circuit.tryAcquire(currentMillis.getAsLong());
+        if (retryAfter >= 0) {
+            rejected.inc();
+            throw new JiraCircuitOpenException("Circuit breaker of Jira " + url.host() + " is open", retryAfter);
+        }
+
+        final long start = currentMillis.getAsLong();
+        boolean failure = true;
+        try {
+            final Response res = chain.proceed(chain.request());
+            failure = res.code() >= 500;
+            return res;
+        } finally {
+            final long end = currentMillis.getAsLong();
+            circuit.record(end, failure, end - start >= slowCallMillis);
+        }
+    }
+
+    State state(final HttpUrl url) {
+        return circuitFor(url).state;
+    }
+
+    private Circuit circuitFor(final HttpUrl url) {
+        return circuits.computeIfAbsent(url.scheme() + "://" + url.host() + ":" + url.port(), key -> {
+            final Circuit circuit = new Circuit(key);
+            MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraCircuitBreaker.class, key, "state"),
+                    (Gauge<Integer>) () -> circuit.state.ordinal());
+            return circuit;
+        });
+    }
+
+    /**
+     * Outcomes of the last calls are kept in ring buffers of the window size.
+     */
+    private final class Circuit {
+        private final String name;
+        private final boolean[] failures = new boolean[windowSize];
+        private final boolean[] slowCalls = new boolean[windowSize];
+        private volatile State state = State.CLOSED;
+        private int calls;
+        private int next;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        Circuit(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return -1 when the call may proceed, otherwise milliseconds until a trial call is allowed
+         */
+        synchronized long tryAcquire(final long now) {
+            if (state == State.OPEN) {
+                final long remaining = openedAt + cooldownMillis - now;
+                if (remaining > 0) {
+                    return remaining;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return cooldownMillis;
+                }
+                trialInFlight = true;
+            }
+            return -1;
+        }
+
+        synchronized void record(final long now, final boolean failure, final boolean slow) {
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (failure || slow) {
+                        open(now);
+                    } else {
+                        LOG.info("Circuit breaker of Jira {} closed", name);
+                        state = State.CLOSED;
+                        calls = 0;
+                        next = 0;
+                    }
+                }
+                case CLOSED -> {
+                    failures[next] = failure;
+                    slowCalls[next] = slow;
+                    next = (next + 1) % windowSize;
+                    calls = Math.min(calls + 1, windowSize);
+                    if (calls >= minimumCalls && (rate(failures) >= failureRateThreshold
+                            || rate(slowCalls) >= slowCallRateThreshold)) {
+                        open(now);
+                    }
+                }
+                case OPEN -> {
+                    // call started before the breaker opened
+                }
+            }
+        }
+
+        private void open(final long now) {
+            LOG.warn("Circuit breaker of Jira {} opened, calls are rejected for {} ms", name, cooldownMillis);
+            state = State.OPEN;
+            openedAt = now;
+            trialInFlight = false;
+        }
+
+        private int rate(final boolean[] outcomes) {
+            int count = 0;
+            for (int i = 0; i < calls; i++) {
+                if (outcomes[i]) {
+                    count++;
+                }
+            }
+            return count * 100 / calls;
+        }
+    }
+}
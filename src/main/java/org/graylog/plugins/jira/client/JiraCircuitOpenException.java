@@ -0,0 +1,27 @@
+package org.graylog.plugins.jira.client;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Request was not sent because the circuit breaker of the Jira instance is open.
+ */
+public class JiraCircuitOpenException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 4128877102476635043L;
+
+    private final long retryAfterMillis;
+
+    public JiraCircuitOpenException(final String message, final long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return time until the breaker lets a trial request through
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -1,10 +1,10 @@
 package org.graylog.plugins.jira.client;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.floreysoft.jmte.Engine;
-import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 
 import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
@@ -12,18 +12,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Proxy;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.Base64;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
 import okhttp3.HttpUrl;
@@ -32,230 +27,657 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
 
 public class JiraClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(JiraClient.class);
-    private static final String HEADER_AUTH = "Authorization";
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    // format of date time custom fields
+    private static final DateTimeFormatter JIRA_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.ROOT).withZone(ZoneOffset.UTC);
 
-    private final Engine templateEngine;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Model entries describing several coalesced occurrences of the same event
+    public static final String MODEL_OCCURRENCE_COUNT = "occurrence_count";
+    public static final String MODEL_FIRST_OCCURRENCE = "first_occurrence";
+    public static final String MODEL_LAST_OCCURRENCE = "last_occurrence";
+    private static final String MODEL_BACKLOG = "backlog";
+
+    private final JiraTemplateRenderer templateRenderer;
+    private final JiraHttpClientRegistry clientRegistry;
+    private final JiraIssueCache issueCache;
+    private final JiraIssueIndex issueIndex;
+    private final JiraBulkIssueCreator bulkIssueCreator;
+    private final JiraBatchIssueSearcher batchIssueSearcher;
+    private final JiraDuplicateAggregator duplicateAggregator;
+    private final JiraMetadataCache metadataCache;
+    private final JiraIssueCreateLock createLock;
+    private final JiraRetryPolicy retryPolicy;
+    private final JiraNotificationMetrics notificationMetrics;
+    private final ObjectMapper objectMapper = JiraResponseReader.OBJECT_MAPPER;
 
     @Inject
-    public JiraClient(final Engine engine) {
-        this.templateEngine = engine;
+    public JiraClient(final JiraTemplateRenderer templateRenderer, final JiraHttpClientRegistry clientRegistry,
+                      final JiraIssueCache issueCache, final JiraIssueIndex issueIndex,
+                      final JiraBulkIssueCreator bulkIssueCreator, final JiraBatchIssueSearcher batchIssueSearcher,
+                      final JiraDuplicateAggregator duplicateAggregator, final JiraMetadataCache metadataCache,
+                      final JiraIssueCreateLock createLock, final JiraRetryPolicy retryPolicy,
+                      final JiraNotificationMetrics notificationMetrics) {
+        this.templateRenderer = templateRenderer;
+        this.clientRegistry = clientRegistry;
+        this.issueCache = issueCache;
+        this.issueIndex = issueIndex;
+        this.bulkIssueCreator = bulkIssueCreator;
+        this.batchIssueSearcher = batchIssueSearcher;
+        this.duplicateAggregator = duplicateAggregator;
+        this.metadataCache = metadataCache;
+        this.createLock = createLock;
+        this.retryPolicy = retryPolicy;
+        this.notificationMetrics = notificationMetrics;
+    }
+
+    public void createIssue(final String notificationId, final JiraEventNotificationConfig config,
+                            final Map<String, Object> model, final Instant occurredAt) {
+        createIssue(notificationId, config, prepareIssue(notificationId, config, model), model, occurredAt);
     }
 
-    public void createIssue(final JiraEventNotificationConfig config, final Map<String, Object> model) {
-        final OkHttpClient client;
-        if (Strings.isNullOrEmpty(config.proxyURL())) {
-            client = new OkHttpClient();
+    /**
+     * Checks the names of given config against Jira's metadata, when the metadata cache is enabled.
+     *
+     * @throws JiraClientException permanent one, listing the names Jira does not know
+     */
+    public void checkNames(final JiraEventNotificationConfig config) {
+        metadataCache.check(config);
+    }
+
+    /**
+     * Creates already rendered issue, or comments its duplicate.
+     *
+     * @param occurredAt time of the event, of the first one for coalesced events
+     */
+    public void createIssue(final String notificationId, final JiraEventNotificationConfig config,
+                            final JiraIssue jiraIssue, final Map<String, Object> model, final Instant occurredAt) {
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config, metadataCache.get(config));
+        final OkHttpClient client = clientRegistry.clientFor(config);
+        final JiraNotificationMetrics.Notification metrics = notificationMetrics.forNotification(notificationId);
+        final boolean duplicateSearch = !Strings.isNullOrEmpty(config.searchGraylogHashField());
+
+        final String issueId;
+        if (duplicateSearch) {
+            final String graylogHash;
+            try (Timer.Context ignored = metrics.hash.time()) {
+                graylogHash = jiraIssue.createGraylogHash();
+            }
+            // known duplicates skip the lock, the others are searched and created one at a time per Graylog hash,
+            // so that concurrent events do not all miss the search and create an issue each. Only the index tells
+            // the next holder on another node about the issue created, Jira search may not see it yet, so without
+            // the index the lock is held on this node only.
+            final String knownIssueId = knownIssue(config, graylogHash);
+            final Outcome outcome;
+            if (knownIssueId != null) {
+                outcome = new Outcome(knownIssueId, true);
+            } else if (issueIndex.isEnabled()) {
+                outcome = createLock.call(config.jiraURL(), config.projectKey(), graylogHash,
+                        () -> searchOrCreate(client, config, compiled, jiraIssue, metrics));
+            } else {
+                outcome = createLock.callOnNode(config.jiraURL(), config.projectKey(), graylogHash,
+                        () -> searchOrCreate(client, config, compiled, jiraIssue, metrics));
+            }
+            if (outcome.duplicate()) {
+                LOG.debug("Duplicate JIRA issue detected with {} - issue will not be created", outcome.issueId());
+                metrics.duplicates.inc();
+                handleDuplicate(notificationId, client, config, compiled, graylogHash, outcome.issueId(), model,
+                        occurredAt, metrics);
+                return;
+            }
+            issueId = outcome.issueId();
         } else {
-            client = new OkHttpClient.Builder().proxy(buildProxy(config.proxyURL())).build();
+            try {
+                issueId = create(client, compiled, jiraIssue, metrics);
+            } catch (final JiraClientException e) {
+                if (e.isMaybeProcessed()) {
+                    // without Graylog hash there is no way to tell whether the issue exists
+                    throw new JiraClientException("Jira issue may have been created, it is not sent again.", e);
+                }
+                throw e;
+            }
+        }
+        if (config.backlogAttachment() && issueId != null
+                && model.get(MODEL_BACKLOG) instanceof List<?> backlog && !backlog.isEmpty()) {
+            attachBacklog(client, compiled, issueId, backlog, metrics);
+        }
+    }
+
+    /**
+     * Runs under the create lock. The issue of a previous lock holder is found in the cache or index, Jira search
+     * may not see it yet.
+     */
+    private Outcome searchOrCreate(final OkHttpClient client, final JiraEventNotificationConfig config,
+                                   final JiraCompiledConfig compiled, final JiraIssue jiraIssue,
+                                   final JiraNotificationMetrics.Notification metrics) {
+        final String duplicateIssueId = findDuplicateIssue(client, config, compiled, jiraIssue, metrics);
+        if (duplicateIssueId != null) {
+            return new Outcome(duplicateIssueId, true);
+        }
+        final String issueId;
+        try {
+            issueId = create(client, compiled, jiraIssue, metrics);
+        } catch (final JiraClientException e) {
+            if (!e.isMaybeProcessed()) {
+                throw e;
+            }
+            // the issue may exist although the response got lost, it must be searched for before trying again
+            final String createdIssueId = searchCreatedIssue(client, config, compiled, jiraIssue, metrics, e);
+            rememberIssue(config, jiraIssue.createGraylogHash(), createdIssueId);
+            return new Outcome(createdIssueId, false);
+        }
+        if (issueId != null) {
+            rememberIssue(config, jiraIssue.createGraylogHash(), issueId);
         }
+        return new Outcome(issueId, false);
+    }
 
-        final JiraIssue jiraIssue = createIssueCreationRequest(config, model);
+    /**
+     * @return ID of issue created by a request whose response was lost
+     * @throws JiraClientException transient one when the issue was not found, creating it is tried again by the
+     *                             next attempt of the notification
+     */
+    private String searchCreatedIssue(final OkHttpClient client, final JiraEventNotificationConfig config,
+                                      final JiraCompiledConfig compiled, final JiraIssue jiraIssue,
+                                      final JiraNotificationMetrics.Notification metrics,
+                                      final JiraClientException failure) {
+        final String issueId;
+        try (Timer.Context ignored = metrics.search.time()) {
+            issueId = searchForDuplicateIssue(client, compiled, jiraIssue.createGraylogHash(), metrics);
+        }
+        if (issueId == null) {
+            throw JiraClientException.transientFailure("Jira issue create failed and the issue was not found, "
+                    + "it is created by the next attempt.", failure);
+        }
+        LOG.debug("Jira issue {} was created although the create request failed", issueId);
+        metrics.created.inc();
+        return issueId;
+    }
 
-        if (!Strings.isNullOrEmpty(config.searchGraylogHashField())) {
-            final String duplicateIssueId = searchForDuplicateIssue(client, config, jiraIssue);
-            if (duplicateIssueId != null) {
-                LOG.debug("Duplicate JIRA issue detected with {} - issue will not be created", duplicateIssueId);
+    /**
+     * @return ID of created issue
+     */
+    private String create(final OkHttpClient client, final JiraCompiledConfig compiled, final JiraIssue jiraIssue,
+                          final JiraNotificationMetrics.Notification metrics) {
+        final String issueId;
+        try (Timer.Context ignored = metrics.create.time()) {
+            if (bulkIssueCreator.isEnabled()) {
+                issueId = retryPolicy.callOnce("issue bulk create", () -> createInBulk(client, compiled, jiraIssue, metrics));
+            } else {
+                issueId = sendIssue(client, compiled, jiraIssue, metrics);
+            }
+        }
+        metrics.created.inc();
+        return issueId;
+    }
+
+    private void handleDuplicate(final String notificationId, final OkHttpClient client,
+                                 final JiraEventNotificationConfig config, final JiraCompiledConfig compiled,
+                                 final String graylogHash, final String issueId, final Map<String, Object> model,
+                                 final Instant occurredAt, final JiraNotificationMetrics.Notification metrics) {
+        switch (compiled.duplicateMode()) {
+            case COMMENT -> {
                 if (!Strings.isNullOrEmpty(config.duplicateIssueComment())) {
-                    addIssueComment(client, config, duplicateIssueId, model);
+                    try {
+                        addIssueComment(client, config, compiled, issueId, model, metrics);
+                    } catch (final JiraClientException e) {
+                        if (!forgetMissingIssue(config, graylogHash, issueId, e)) {
+                            throw e;
+                        }
+                        // next attempt searches Jira again and creates a new issue when there is none
+                        throw JiraClientException.transientFailure("Jira issue " + issueId
+                                + " is gone, the event is sent again.", e);
+                    }
                 }
-                return;
             }
+            case DIGEST -> duplicateAggregator.add(notificationId, issueId, config.duplicateFlushSeconds(), model,
+                    occurredAt, occurrences -> forgetIfMissing(config, graylogHash, issueId,
+                            () -> addIssueComment(client, config, compiled, issueId, occurrences.toModel(), metrics)));
+            // the count is read and written back, the create lock of the hash keeps other nodes from doing the same
+            case COUNTER -> duplicateAggregator.add(notificationId, issueId, config.duplicateFlushSeconds(), model,
+                    occurredAt, occurrences -> forgetIfMissing(config, graylogHash, issueId,
+                            () -> createLock.call(config.jiraURL(), config.projectKey(), graylogHash, () -> {
+                                updateOccurrenceFields(client, config, compiled, issueId, occurrences, metrics);
+                                return null;
+                            })));
+        }
+    }
+
+    private void forgetIfMissing(final JiraEventNotificationConfig config, final String graylogHash,
+                                 final String issueId, final Runnable update) {
+        try {
+            update.run();
+        } catch (final JiraClientException e) {
+            forgetMissingIssue(config, graylogHash, issueId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Issues deleted, moved to another project or no longer visible to the Jira user are forgotten, so that later
+     * events do not keep failing on them.
+     *
+     * @return true when the issue was forgotten
+     */
+    private boolean forgetMissingIssue(final JiraEventNotificationConfig config, final String graylogHash,
+                                       final String issueId, final JiraClientException e) {
+        if (e.getStatusCode() != 404 && e.getStatusCode() != 403) {
+            return false;
         }
+        LOG.info("Jira issue {} of Graylog hash {} is not accessible anymore (HTTP {}), forgetting it", issueId,
+                graylogHash, e.getStatusCode());
+        final String searchFilter = Strings.nullToEmpty(config.searchFilterJQL());
+        issueCache.remove(config.jiraURL(), config.projectKey(), searchFilter, graylogHash);
+        issueIndex.remove(config.jiraURL(), config.projectKey(), searchFilter, graylogHash);
+        return true;
+    }
+
+    private String createInBulk(final OkHttpClient client, final JiraCompiledConfig compiled,
+                                final JiraIssue jiraIssue, final JiraNotificationMetrics.Notification metrics) {
+        try {
+            return bulkIssueCreator.create(client, compiled.bulkURL(), compiled.authHeaders(), jiraIssue);
+        } catch (final JiraClientException e) {
+            metrics.failure(e.getStatusCode());
+            throw e;
+        }
+    }
 
-        // Create issue
-        final HttpUrl url = constructURL(config.jiraURL(), "rest/api/2/issue");
-        final RequestBody reqBody = RequestBody.create(jiraIssue.toJsonString(), JSON);
+    /**
+     * Uploads backlog to created issue. The issue exists already, so failure is only logged instead of having the
+     * notification retried.
+     */
+    private void attachBacklog(final OkHttpClient client, final JiraCompiledConfig compiled, final String issueId,
+                               final List<?> backlog, final JiraNotificationMetrics.Notification metrics) {
         final Request req = new Request.Builder()
-                .url(url)
-                .addHeader(HEADER_AUTH, basicAuthHeaderValue(config))
-                .post(reqBody)
+                .url(compiled.attachmentsURL(issueId))
+                .headers(compiled.authHeaders())
+                .addHeader("X-Atlassian-Token", "no-check")
+                .post(JiraBacklogAttachment.requestBody(backlog, objectMapper))
+                .build();
+        try {
+            retryPolicy.callOnce("backlog attachment", () -> execute(client, req, "backlog attachment", metrics));
+        } catch (final JiraClientException e) {
+            LOG.warn("Failed to attach backlog to Jira issue {}", issueId, e);
+        }
+    }
+
+    /**
+     * @return ID of created issue
+     */
+    private String sendIssue(final OkHttpClient client, final JiraCompiledConfig compiled,
+                             final JiraIssue jiraIssue, final JiraNotificationMetrics.Notification metrics) {
+        final Request req = new Request.Builder()
+                .url(compiled.issueURL())
+                .headers(compiled.authHeaders())
+                .post(JiraIssueSerializer.requestBody(jiraIssue))
                 .build();
+
+        return retryPolicy.callOnce("issue create",
+                () -> execute(client, req, "issue create", metrics, JiraResponseReader::id));
+    }
+
+    /**
+     * Sends request, the body of successful response is not read.
+     */
+    private Void execute(final OkHttpClient client, final Request req, final String operation,
+                         final JiraNotificationMetrics.Notification metrics) {
+        return execute(client, req, operation, metrics, in -> null);
+    }
+
+    /**
+     * Sends request and reads body of successful response. Failures are classified as transient or permanent.
+     */
+    private <T> T execute(final OkHttpClient client, final Request req, final String operation,
+                          final JiraNotificationMetrics.Notification metrics,
+                          final JiraResponseReader.Reader<T> reader) {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Request: {}", req);
         }
-
-        // Response
-        try (final Response res = client.newCall(req).execute()) {
+        final Request counted = req.body() == null
+                ? req : req.newBuilder().method(req.method(), counted(req.body(), metrics.payloadBytes)).build();
+        try (final Response res = client.newCall(counted).execute()) {
             if (res.body() == null) {
-                throw new JiraClientException("Jira (issue create) returned null body");
+                throw new JiraClientException("Jira (" + operation + ") returned null body");
             }
             if (!res.isSuccessful()) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug(res.toString());
                 }
-                throw new JiraClientException("Jira (issue create) returned client error. HTTP Status=" + res.code()
-                        + ", response=" + res.body().string());
+                metrics.failure(res.code());
+                throw JiraClientException.forStatus("Jira (" + operation + ") returned client error. HTTP Status="
+                        + res.code() + ", response=" + JiraResponseReader.errorBody(res.body()), res.code(),
+                        res.header("Retry-After"));
             }
+            return reader.read(res.body().byteStream());
+        } catch (final JacksonException ex) {
+            throw new IllegalStateException("Failed to read JIRA (" + operation + ") response body.", ex);
         } catch (final IOException ex) {
-            throw new JiraClientException("Failed to send POST request to Jira (issue create).", ex);
+            metrics.failure(0);
+            throw JiraClientException.forIOException("Failed to send " + req.method() + " request to Jira ("
+                    + operation + ").", ex);
         }
     }
 
-    private HttpUrl constructURL(final String jiraURL, final String apiPart) {
-        String baseUrl = jiraURL;
-        if (!jiraURL.endsWith("/")) {
-            baseUrl += "/";
+    /**
+     * @return ID of duplicate issue, taken from local cache or cluster wide index if known
+     */
+    private String findDuplicateIssue(final OkHttpClient client, final JiraEventNotificationConfig config,
+                                      final JiraCompiledConfig compiled, final JiraIssue jiraIssue,
+                                      final JiraNotificationMetrics.Notification metrics) {
+        final String graylogHash = jiraIssue.createGraylogHash();
+        final String knownIssueId = knownIssue(config, graylogHash);
+        if (knownIssueId != null) {
+            return knownIssueId;
+        }
+        final String issueId;
+        try (Timer.Context ignored = metrics.search.time()) {
+            issueId = searchForDuplicateIssue(client, compiled, graylogHash, metrics);
         }
-        final HttpUrl url = HttpUrl.parse(baseUrl + apiPart);
-        if (url == null) {
-            throw new JiraClientException("Jira URL is in invalid format. URL=" + jiraURL);
+        if (issueId != null) {
+            rememberIssue(config, graylogHash, issueId);
+        }
+        return issueId;
+    }
+
+    /**
+     * Index hits are not copied to the cache, that would keep them beyond the TTL of the index.
+     *
+     * @return ID of issue of given hash from local cache or cluster wide index, null if not known
+     */
+    private String knownIssue(final JiraEventNotificationConfig config, final String graylogHash) {
+        final String searchFilter = Strings.nullToEmpty(config.searchFilterJQL());
+        final String cachedIssueId = issueCache.get(config.jiraURL(), config.projectKey(), searchFilter, graylogHash);
+        if (cachedIssueId != null) {
+            return cachedIssueId;
         }
-        return url;
+        return issueIndex.get(config.jiraURL(), config.projectKey(), searchFilter, graylogHash);
+    }
+
+    private void rememberIssue(final JiraEventNotificationConfig config, final String graylogHash,
+                               final String issueId) {
+        final String searchFilter = Strings.nullToEmpty(config.searchFilterJQL());
+        issueCache.put(config.jiraURL(), config.projectKey(), searchFilter, graylogHash, issueId);
+        issueIndex.put(config.jiraURL(), config.projectKey(), searchFilter, graylogHash, issueId);
     }
 
     /**
      * @return ID of first duplicate issue
      */
-    private String searchForDuplicateIssue(final OkHttpClient client, final JiraEventNotificationConfig config,
-                                           final JiraIssue jiraIssue) {
-        final String jql = "project = " + config.projectKey()
-                + (Strings.isNullOrEmpty(config.searchFilterJQL()) ? " " : " " + config.searchFilterJQL() + " ")
-                + "AND \"" + parseGraylogHashField(config.searchGraylogHashField())[1]
-                + "\" ~ \"" + jiraIssue.createGraylogHash() + "\"";
-
-        final HttpUrl url = constructURL(config.jiraURL(), "rest/api/2/search").newBuilder()
-                .addQueryParameter("jql", jql)
+    private String searchForDuplicateIssue(final OkHttpClient client, final JiraCompiledConfig compiled,
+                                           final String graylogHash,
+                                           final JiraNotificationMetrics.Notification metrics) {
+        if (batchIssueSearcher.isEnabled()) {
+            return retryPolicy.call("issue batch search",
+                    () -> searchInBatch(client, compiled, graylogHash, metrics));
+        }
+        final HttpUrl url = compiled.searchURL().newBuilder()
+                .addQueryParameter("jql", compiled.duplicateSearchJQL(graylogHash))
                 .addQueryParameter("startAt", "0")
                 .addQueryParameter("maxResults", "1")
                 .addQueryParameter("fields", "id,key")
                 .build();
         final Request req = new Request.Builder()
                 .url(url)
-                .addHeader(HEADER_AUTH, basicAuthHeaderValue(config))
+                .headers(compiled.authHeaders())
                 .get()
                 .build();
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Request: {}", req);
-        }
 
-        try (final Response res = client.newCall(req).execute()) {
-            if (res.body() == null) {
-                throw new JiraClientException("Jira (issue search) returned null body");
-            }
-            if (!res.isSuccessful()) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(res.toString());
-                }
-                throw new JiraClientException("Jira (issue search) returned client error. HTTP Status=" + res.code()
-                        + ", response=" + res.body().string());
-            }
-            final String jsonData = res.body().string();
-            final JsonNode issues = objectMapper.readValue(jsonData, JsonNode.class).get("issues");
-            if (issues != null && issues.isArray() && !issues.isEmpty()) {
-                return issues.get(0).get("id").textValue();
-            }
-            return null; // no duplicates found
-        } catch (final JacksonException ex) {
-            throw new IllegalStateException("Failed to read JIRA (issue search) response body.", ex);
-        } catch (final IOException ex) {
-            throw new JiraClientException("Failed to send GET request to JIRA (issue search).", ex);
+        // null when no duplicates were found
+        return retryPolicy.call("issue search",
+                () -> execute(client, req, "issue search", metrics, JiraResponseReader::firstIssueId));
+    }
+
+    private String searchInBatch(final OkHttpClient client, final JiraCompiledConfig compiled,
+                                 final String graylogHash, final JiraNotificationMetrics.Notification metrics) {
+        try {
+            return batchIssueSearcher.search(client, compiled, graylogHash);
+        } catch (final JiraClientException e) {
+            metrics.failure(e.getStatusCode());
+            throw e;
         }
     }
 
     private void addIssueComment(final OkHttpClient client, final JiraEventNotificationConfig config,
-            final String issueId, final Map<String, Object> model) {
-        final HttpUrl url = constructURL(config.jiraURL(), "rest/api/2/issue/" + issueId + "/comment").newBuilder()
-                .build();
+            final JiraCompiledConfig compiled, final String issueId, final Map<String, Object> model,
+            final JiraNotificationMetrics.Notification metrics) {
 
-        final RequestBody reqBody = RequestBody.create("{\"body\":\"" + buildMessage(config.duplicateIssueComment(), model) + "\"}", JSON);
+        final String occurrenceSummary = occurrenceSummary(model);
+        final String comment;
+        if (Strings.isNullOrEmpty(config.duplicateIssueComment())) {
+            // digest without comment template tells the occurrences only
+            comment = occurrenceSummary.strip();
+            if (comment.isEmpty()) {
+                return;
+            }
+        } else {
+            try (Timer.Context ignored = metrics.render.time()) {
+                comment = buildMessage(config.duplicateIssueComment(), model, maxLength(config, occurrenceSummary))
+                        + occurrenceSummary;
+            }
+        }
+        final RequestBody reqBody;
+        try {
+            reqBody = RequestBody.create(objectMapper.writeValueAsString(Map.of("body", comment)), JSON);
+        } catch (final JacksonException ex) {
+            throw new IllegalStateException("Failed to build Jira comment payload as JSON format.", ex);
+        }
         final Request req = new Request.Builder()
-                .url(url)
-                .addHeader(HEADER_AUTH, basicAuthHeaderValue(config))
+                .url(compiled.commentURL(issueId))
+                .headers(compiled.authHeaders())
                 .post(reqBody)
                 .build();
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Request: {}", req);
+
+        try (Timer.Context ignored = metrics.comment.time()) {
+            retryPolicy.callOnce("issue comment", () -> execute(client, req, "issue comment", metrics));
+        } catch (final JiraClientException e) {
+            if (e.isMaybeProcessed()) {
+                // sending it again could add the comment twice
+                throw new JiraClientException("Jira issue " + issueId + " comment may have been added, "
+                        + "it is not sent again.", e);
+            }
+            throw e;
         }
+        metrics.comments.inc();
+    }
 
-        try (final Response res = client.newCall(req).execute()) {
-            if (res.body() == null) {
-                throw new JiraClientException("Jira (issue comment) returned null body");
+    /**
+     * Adds counted occurrences to the occurrence count field and sets the last seen field. Jira cannot increase a
+     * field, so the count is read first and the sum is written. Callers hold the create lock of the issue's hash,
+     * without it (jira_create_lock_enabled=false) concurrent updates from several nodes may lose counts.
+     */
+    private void updateOccurrenceFields(final OkHttpClient client, final JiraEventNotificationConfig config,
+                                        final JiraCompiledConfig compiled, final String issueId,
+                                        final JiraDuplicateAggregator.Occurrences occurrences,
+                                        final JiraNotificationMetrics.Notification metrics) {
+        final Map<String, Object> fields = new HashMap<>();
+        try (Timer.Context ignored = metrics.update.time()) {
+            if (!Strings.isNullOrEmpty(config.occurrenceCountField())) {
+                fields.put(config.occurrenceCountField(),
+                        readOccurrenceCount(client, config, compiled, issueId, metrics) + occurrences.count());
             }
-            if (!res.isSuccessful()) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(res.toString());
-                }
-                throw new JiraClientException("Jira (issue comment) returned client error. HTTP Status=" + res.code()
-                        + ", response=" + res.body().string());
+            if (!Strings.isNullOrEmpty(config.lastSeenField())) {
+                fields.put(config.lastSeenField(), JIRA_DATE_TIME.format(occurrences.lastOccurrence()));
             }
-        } catch (final IOException ex) {
-            throw new JiraClientException("Failed to send POST request to JIRA (issue comment).", ex);
+            final RequestBody reqBody;
+            try {
+                reqBody = RequestBody.create(objectMapper.writeValueAsString(Map.of("fields", fields)), JSON);
+            } catch (final JacksonException ex) {
+                throw new IllegalStateException("Failed to build Jira issue update payload as JSON format.", ex);
+            }
+            final Request req = new Request.Builder()
+                    .url(compiled.issueURL(issueId))
+                    .headers(compiled.authHeaders())
+                    .put(reqBody)
+                    .build();
+            retryPolicy.call("issue update", () -> execute(client, req, "issue update", metrics));
         }
     }
 
-    private String basicAuthHeaderValue(final JiraEventNotificationConfig config) {
-        final String auth = config.credUsername() + ":" + config.credPassword();
-        return "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+    /**
+     * @return value of the occurrence count field, 0 when it is not set yet
+     */
+    private long readOccurrenceCount(final OkHttpClient client, final JiraEventNotificationConfig config,
+                                     final JiraCompiledConfig compiled, final String issueId,
+                                     final JiraNotificationMetrics.Notification metrics) {
+        final Request req = new Request.Builder()
+                .url(compiled.issueURL(issueId).newBuilder()
+                        .addQueryParameter("fields", config.occurrenceCountField())
+                        .build())
+                .headers(compiled.authHeaders())
+                .get()
+                .build();
+        final JsonNode count = retryPolicy.call("issue read", () -> execute(client, req, "issue read", metrics,
+                in -> JiraResponseReader.issueField(in, config.occurrenceCountField())));
+        return count.asLong(0);
     }
 
-    private JiraIssue createIssueCreationRequest(final JiraEventNotificationConfig config,
-            final Map<String, Object> model) {
+    /**
+     * Renders only the summary of the issue, which is much cheaper than rendering the whole issue.
+     */
+    public String prepareSummary(final String notificationId, final JiraEventNotificationConfig config,
+                                 final Map<String, Object> model) {
+        final JiraNotificationMetrics.Notification metrics = notificationMetrics.forNotification(notificationId);
         model.put("graylog_url", config.graylogURL());
-        return new JiraIssue(
-                config.projectKey(),
-                buildMessage(config.issueSummary(), model),
-                buildMessage(config.issueDescription(), model),
-                config.issueType(),
-                config.issueAssigneeName(),
-                config.issuePriority(),
-                parseDelimitedValues(config.issueLabels()),
-                parseDelimitedValues(config.issueComponents()),
-                config.issueEnvironment(),
-                parseGraylogHashField(config.searchGraylogHashField())[0],
-                config.searchGraylogHashRegex(),
-                parseMapValues(config.issueCustomFields())
-        );
-    }
-
-    private Proxy buildProxy(final String proxyURL) {
-        try {
-            final URI uri = new URI(proxyURL);
-            return new Proxy(Proxy.Type.HTTP, new InetSocketAddress(uri.getHost(), uri.getPort()));
-        } catch (final URISyntaxException e) {
-            throw new JiraClientException("Proxy URL is invalid format. Proxy URL=" + proxyURL, e);
+        try (Timer.Context ignored = metrics.render.time()) {
+            return buildMessage(config.issueSummary(), model, 0);
         }
     }
 
-    private String buildMessage(final String msgTemplate, final Map<String, Object> model) {
+    /**
+     * Renders issue from the model without sending it anywhere.
+     */
+    public JiraIssue prepareIssue(final String notificationId, final JiraEventNotificationConfig config,
+                                  final Map<String, Object> model) {
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config, metadataCache.get(config));
+        final JiraNotificationMetrics.Notification metrics = notificationMetrics.forNotification(notificationId);
+        model.put("graylog_url", config.graylogURL());
+        final Map<String, Object> descriptionModel;
+        final String suffix;
+        if (config.backlogAttachment()) {
+            // backlog goes to the attachment, description only tells where to find it
+            descriptionModel = JiraTemplateRenderer.withValue(model, MODEL_BACKLOG, List.of());
+            suffix = backlogSummary(compiled, model) + occurrenceSummary(model);
+        } else {
+            descriptionModel = model;
+            suffix = occurrenceSummary(model);
+        }
+        try (Timer.Context ignored = metrics.render.time()) {
+            return new JiraIssue(
+                    compiled.issueFields(),
+                    buildMessage(config.issueSummary(), model, 0),
+                    buildMessage(config.issueDescription(), descriptionModel, maxLength(config, suffix)) + suffix
+            );
+        }
+    }
+
+    /**
+     * @param maxLength maximum length of the message, 0 for no limit
+     */
+    private String buildMessage(final String msgTemplate, final Map<String, Object> model, final int maxLength) {
         final String template;
         if (Strings.isNullOrEmpty(msgTemplate)) {
             template = JiraEventNotificationConfig.DEFAULT_ISSUE_DESCRIPTION;
         } else {
             template = msgTemplate;
         }
-        return templateEngine.transform(template, model).replaceAll("\\r\\n|\\n|\\r", "\n");
+        return templateRenderer.render(template, model, maxLength);
+    }
+
+    /**
+     * @return body recording the number of bytes written to the request in given histogram
+     */
+    private static RequestBody counted(final RequestBody body, final Histogram histogram) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() throws IOException {
+                return body.contentLength();
+            }
+
+            @Override
+            public void writeTo(final BufferedSink sink) throws IOException {
+                final CountingSink counting = new CountingSink(sink);
+                final BufferedSink buffered = Okio.buffer(counting);
+                body.writeTo(buffered);
+                // emit only, closing would close the request sink
+                buffered.emit();
+                histogram.update(counting.count);
+            }
+        };
+    }
+
+    private static final class CountingSink extends ForwardingSink {
+        private long count;
+
+        CountingSink(final Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(final Buffer source, final long byteCount) throws IOException {
+            super.write(source, byteCount);
+            count += byteCount;
+        }
     }
 
-    private Set<String> parseDelimitedValues(final String delimitedString) {
-        if (Strings.isNullOrEmpty(delimitedString)) {
-            return new HashSet<>();
+    /**
+     * @return length left for the rendered message next to given suffix, 0 for no limit
+     */
+    private static int maxLength(final JiraEventNotificationConfig config, final String suffix) {
+        if (config.descriptionMaxLength() <= 0) {
+            return 0;
         }
-        return Arrays.stream(delimitedString.split(";")).collect(Collectors.toSet());
+        return Math.max(1, config.descriptionMaxLength() - suffix.length());
     }
 
     /**
-     * @return array of custom field id and it's name
+     * @return line pointing to backlog attachment and the event time range in Graylog, or empty string without backlog
      */
-    private String[] parseGraylogHashField(final String graylogHashField) {
-        if (Strings.isNullOrEmpty(graylogHashField)) {
-            return new String[] {"", ""};
+    private static String backlogSummary(final JiraCompiledConfig compiled, final Map<String, Object> model) {
+        if (!(model.get(MODEL_BACKLOG) instanceof List<?> backlog) || backlog.isEmpty()) {
+            return "";
         }
-        if (!graylogHashField.contains("=")) {
-            throw new JiraClientException("Graylog hash field is incorrectly formed.");
+        final StringBuilder summary = new StringBuilder("\n*Backlog:* ")
+                .append(backlog.size()).append(" messages attached as ").append(JiraBacklogAttachment.FILE_NAME);
+        if (compiled.graylogSearchURL() != null && model.get("event") instanceof Map<?, ?> event
+                && event.get("timerange_start") != null && event.get("timerange_end") != null) {
+            final HttpUrl searchURL = compiled.graylogSearchURL().newBuilder()
+                    .addQueryParameter("rangetype", "absolute")
+                    .addQueryParameter("from", String.valueOf(event.get("timerange_start")))
+                    .addQueryParameter("to", String.valueOf(event.get("timerange_end")))
+                    .build();
+            summary.append(" ([search in Graylog|").append(searchURL).append("])");
         }
-        return graylogHashField.split("=", 2);
+        return summary.toString();
     }
 
-    private Map<String, String> parseMapValues(final String mapString) {
-        if (Strings.isNullOrEmpty(mapString)) {
-            return new HashMap<>();
+    /**
+     * @return line summarizing coalesced occurrences or empty string for single event
+     */
+    private String occurrenceSummary(final Map<String, Object> model) {
+        if (!(model.get(MODEL_OCCURRENCE_COUNT) instanceof Integer count) || count <= 1) {
+            return "";
         }
-        return Splitter.on(',').withKeyValueSeparator('=').split(mapString);
+        return "\n*Occurrences:* " + count + " (first " + model.get(MODEL_FIRST_OCCURRENCE)
+                + ", last " + model.get(MODEL_LAST_OCCURRENCE) + ")";
+    }
+
+    /**
+     * @param duplicate whether the issue existed already or was created
+     */
+    private record Outcome(String issueId, boolean duplicate) {
     }
 }
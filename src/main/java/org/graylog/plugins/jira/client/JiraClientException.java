@@ -1,17 +1,133 @@
 package org.graylog.plugins.jira.client;
 
+import java.io.IOException;
 import java.io.Serial;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+
+import javax.net.ssl.SSLHandshakeException;
 
 public class JiraClientException extends RuntimeException {
 
     @Serial
     private static final long serialVersionUID = -2367942499007524159L;
 
+    // Statuses worth retrying, Jira (Cloud) answers 429 and 503 when throttling
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 429, 500, 502, 503, 504);
+    // Statuses of requests Jira did not act on, others may have been processed before failing
+    private static final Set<Integer> UNPROCESSED_STATUSES = Set.of(408, 429, 503);
+
+    private final int statusCode;
+    private final boolean transientFailure;
+    private final boolean maybeProcessed;
+    private final long retryAfterMillis;
+
     public JiraClientException(final String message, final Throwable cause) {
-        super(message, cause);
+        this(message, cause, 0, false, false, -1);
     }
 
     public JiraClientException(final String message) {
-        super(message);
+        this(message, null, 0, false, false, -1);
+    }
+
+    private JiraClientException(final String message, final Throwable cause, final int statusCode,
+                                final boolean transientFailure, final boolean maybeProcessed,
+                                final long retryAfterMillis) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.transientFailure = transientFailure;
+        this.maybeProcessed = maybeProcessed;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Failure which may succeed when tried again later, e.g. connection problem.
+     */
+    public static JiraClientException transientFailure(final String message, final Throwable cause) {
+        return new JiraClientException(message, cause, 0, true, false, -1);
+    }
+
+    /**
+     * Failure to talk to Jira, waiting for the circuit breaker cooldown when it rejected the request. Unless the
+     * connection could not be opened, the request may have reached Jira.
+     */
+    public static JiraClientException forIOException(final String message, final IOException cause) {
+        if (cause instanceof JiraCircuitOpenException circuitOpen) {
+            return new JiraClientException(message, cause, 0, true, false, circuitOpen.getRetryAfterMillis());
+        }
+        return new JiraClientException(message, cause, 0, true, !notSent(cause), -1);
+    }
+
+    /**
+     * Failure response of Jira, transient for throttling and server errors.
+     *
+     * @param retryAfter value of Retry-After header, may be null
+     */
+    public static JiraClientException forStatus(final String message, final int statusCode, final String retryAfter) {
+        final boolean transientFailure = TRANSIENT_STATUSES.contains(statusCode);
+        return new JiraClientException(message, null, statusCode, transientFailure,
+                transientFailure && !UNPROCESSED_STATUSES.contains(statusCode),
+                parseRetryAfter(retryAfter, Clock.systemUTC()));
+    }
+
+    private static boolean notSent(final IOException cause) {
+        return cause instanceof JiraRateLimitException
+                || cause instanceof ConnectException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof UnknownHostException
+                || cause instanceof SSLHandshakeException;
+    }
+
+    /**
+     * @return HTTP status returned by Jira or 0 when there was no response
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isTransient() {
+        return transientFailure;
+    }
+
+    /**
+     * @return true when the failed request may have been carried out by Jira nevertheless, e.g. response timed out,
+     * so that sending it again may create a duplicate
+     */
+    public boolean isMaybeProcessed() {
+        return maybeProcessed;
+    }
+
+    /**
+     * @return delay requested by Jira before next attempt or -1 when not given
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * Retry-After is either delay in seconds or HTTP date.
+     */
+    static long parseRetryAfter(final String retryAfter, final Clock clock) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (final NumberFormatException e) {
+            // not delay seconds, try HTTP date
+        }
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(clock.instant(), date.toInstant()).toMillis());
+        } catch (final DateTimeParseException e) {
+            return -1;
+        }
     }
 }
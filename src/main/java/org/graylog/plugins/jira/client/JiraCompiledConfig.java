@@ -0,0 +1,336 @@
+package org.graylog.plugins.jira.client;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+
+/**
+ * Parts of {@link JiraEventNotificationConfig} which are parsed or built from its values, prepared once per
+ * config version instead of for every event. Configs are compared by value, so a config loaded again from the
+ * database reuses the compiled one and an edited config gets a new one. Configs compiled with {@link JiraMetadata}
+ * refer to the project, issue type, priority, components and fields by ID, and are compiled again when the
+ * metadata is refreshed.
+ */
+public final class JiraCompiledConfig {
+
+    private static final Cache<CacheKey, JiraCompiledConfig> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+    // ID of custom field, JQL refers to it by the number
+    public static final Pattern CUSTOM_FIELD_ID = Pattern.compile("customfield_(\\d+)");
+    private static final String HEADER_AUTH = "Authorization";
+
+    private final HttpUrl baseURL;
+    private final HttpUrl issueURL;
+    private final HttpUrl bulkURL;
+    private final HttpUrl searchURL;
+    private final HttpUrl graylogSearchURL;
+    private final JiraAuthType authType;
+    private final Headers authHeaders;
+    private final Set<String> labels;
+    private final Set<String> components;
+    private final Map<String, String> customFields;
+    private final String graylogHashFieldId;
+    // field given by a name which could not be resolved, reported once the field is needed
+    private final String unresolvedGraylogHashField;
+    private final Pattern graylogHashPattern;
+    private final String jqlPrefix;
+    private final String graylogHashCondition;
+    private final JiraIssueFields issueFields;
+    private final JiraDuplicateMode duplicateMode;
+
+    private JiraCompiledConfig(final JiraEventNotificationConfig config, final JiraMetadata metadata) {
+        this.baseURL = parseURL(config.jiraURL());
+        this.issueURL = baseURL.newBuilder().addPathSegments("rest/api/2/issue").build();
+        this.bulkURL = baseURL.newBuilder().addPathSegments("rest/api/2/issue/bulk").build();
+        this.searchURL = baseURL.newBuilder().addPathSegments("rest/api/2/search").build();
+        final HttpUrl graylogURL = Strings.isNullOrEmpty(config.graylogURL())
+                ? null : HttpUrl.parse(config.graylogURL().endsWith("/") ? config.graylogURL() : config.graylogURL() + "/");
+        this.graylogSearchURL = graylogURL == null ? null : graylogURL.newBuilder().addPathSegment("search").build();
+        this.authType = parseAuthType(config.authType());
+        this.authHeaders = buildAuthHeaders(authType, config.credUsername(), config.credPassword());
+        this.labels = parseDelimitedValues(config.issueLabels());
+        this.components = parseDelimitedValues(config.issueComponents());
+        this.customFields = resolveFieldIds(parseMapValues(config.issueCustomFields()), metadata);
+
+        final String[] resolvedGraylogHashField = parseGraylogHashField(config.searchGraylogHashField(), metadata);
+        this.unresolvedGraylogHashField = resolvedGraylogHashField == null ? config.searchGraylogHashField() : null;
+        final String[] graylogHashField = resolvedGraylogHashField == null ? new String[] {"", ""}
+                : resolvedGraylogHashField;
+        this.graylogHashFieldId = graylogHashField[0];
+        this.graylogHashPattern = config.searchGraylogHashRegex() == null
+                ? null : Pattern.compile(config.searchGraylogHashRegex());
+        this.jqlPrefix = "project = " + config.projectKey()
+                + (Strings.isNullOrEmpty(config.searchFilterJQL()) ? " " : " " + config.searchFilterJQL() + " ")
+                + "AND ";
+        this.graylogHashCondition = graylogHashField[1] + " ~ ";
+        this.issueFields = new JiraIssueFields(config.projectKey(), config.issueType(), config.issueAssigneeName(),
+                config.issuePriority(), labels, components, config.issueEnvironment(), graylogHashFieldId,
+                graylogHashPattern, parseHashAlgorithm(config.graylogHashAlgorithm()), customFields, metadata);
+        this.duplicateMode = parseDuplicateMode(config.duplicateMode());
+    }
+
+    public static JiraCompiledConfig of(final JiraEventNotificationConfig config) {
+        return of(config, null);
+    }
+
+    /**
+     * @param metadata metadata of the Jira project to resolve names with, or null to send the names
+     */
+    public static JiraCompiledConfig of(final JiraEventNotificationConfig config, final JiraMetadata metadata) {
+        try {
+            return CACHE.get(new CacheKey(config, metadata), () -> new JiraCompiledConfig(config, metadata));
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public HttpUrl issueURL() {
+        return issueURL;
+    }
+
+    public HttpUrl bulkURL() {
+        return bulkURL;
+    }
+
+    public HttpUrl searchURL() {
+        return searchURL;
+    }
+
+    public HttpUrl issueURL(final String issueId) {
+        return baseURL.newBuilder().addPathSegments("rest/api/2/issue/" + issueId).build();
+    }
+
+    public HttpUrl commentURL(final String issueId) {
+        return baseURL.newBuilder().addPathSegments("rest/api/2/issue/" + issueId + "/comment").build();
+    }
+
+    public HttpUrl fieldsURL() {
+        return baseURL.newBuilder().addPathSegments("rest/api/2/field").build();
+    }
+
+    public HttpUrl createMetaURL() {
+        return baseURL.newBuilder().addPathSegments("rest/api/2/issue/createmeta").build();
+    }
+
+    public HttpUrl sessionURL() {
+        return baseURL.newBuilder().addPathSegments("rest/auth/1/session").build();
+    }
+
+    public HttpUrl attachmentsURL(final String issueId) {
+        return baseURL.newBuilder().addPathSegments("rest/api/2/issue/" + issueId + "/attachments").build();
+    }
+
+    /**
+     * @return URL of Graylog search page or null when Graylog URL is not set
+     */
+    public HttpUrl graylogSearchURL() {
+        return graylogSearchURL;
+    }
+
+    public JiraAuthType authType() {
+        return authType;
+    }
+
+    /**
+     * @return headers authenticating each request, none for {@link JiraAuthType#SESSION} where the session cookie is
+     * sent by the client
+     */
+    public Headers authHeaders() {
+        return authHeaders;
+    }
+
+    public Set<String> labels() {
+        return labels;
+    }
+
+    public Set<String> components() {
+        return components;
+    }
+
+    public Map<String, String> customFields() {
+        return customFields;
+    }
+
+    /**
+     * @return ID of the custom field holding Graylog hash or empty string when duplicate search is off
+     */
+    public String graylogHashFieldId() {
+        requireGraylogHashField();
+        return graylogHashFieldId;
+    }
+
+    /**
+     * @return pattern selecting the hashed part of description or null to hash the whole description
+     */
+    public Pattern graylogHashPattern() {
+        return graylogHashPattern;
+    }
+
+    /**
+     * @return issue fields given by the config, serialized already
+     */
+    public JiraIssueFields issueFields() {
+        requireGraylogHashField();
+        return issueFields;
+    }
+
+    public JiraDuplicateMode duplicateMode() {
+        return duplicateMode;
+    }
+
+    /**
+     * @return JQL searching issues of the project with given Graylog hash
+     */
+    public String duplicateSearchJQL(final String graylogHash) {
+        requireGraylogHashField();
+        return jqlPrefix + graylogHashCondition + "\"" + graylogHash + "\"";
+    }
+
+    /**
+     * @return JQL searching issues of the project with any of given Graylog hashes
+     */
+    public String duplicateSearchJQL(final Collection<String> graylogHashes) {
+        if (graylogHashes.size() == 1) {
+            return duplicateSearchJQL(graylogHashes.iterator().next());
+        }
+        requireGraylogHashField();
+        final StringJoiner jql = new StringJoiner(" OR ", jqlPrefix + "(", ")");
+        for (final String graylogHash : graylogHashes) {
+            jql.add(graylogHashCondition + "\"" + graylogHash + "\"");
+        }
+        return jql.toString();
+    }
+
+    private void requireGraylogHashField() {
+        if (unresolvedGraylogHashField != null) {
+            throw new JiraClientException("Graylog hash field " + unresolvedGraylogHashField
+                    + " is not known to Jira, or Jira metadata is not available to resolve it.");
+        }
+    }
+
+    private static HttpUrl parseURL(final String jiraURL) {
+        final HttpUrl url = HttpUrl.parse(jiraURL.endsWith("/") ? jiraURL : jiraURL + "/");
+        if (url == null) {
+            throw new JiraClientException("Jira URL is in invalid format. URL=" + jiraURL);
+        }
+        return url;
+    }
+
+    private static Set<String> parseDelimitedValues(final String delimitedString) {
+        if (Strings.isNullOrEmpty(delimitedString)) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(delimitedString.split(";"))));
+    }
+
+    /**
+     * Field is given as {@code id=name}, as ID, or as name known to the metadata.
+     *
+     * @return array of custom field id and the field as referred to in JQL, or null when the name is not known
+     */
+    private static String[] parseGraylogHashField(final String graylogHashField, final JiraMetadata metadata) {
+        if (Strings.isNullOrEmpty(graylogHashField)) {
+            return new String[] {"", ""};
+        }
+        if (graylogHashField.contains("=")) {
+            final String[] field = graylogHashField.split("=", 2);
+            return new String[] {field[0], "\"" + field[1] + "\""};
+        }
+        final String fieldId = metadata == null ? graylogHashField.trim() : metadata.fieldId(graylogHashField);
+        final Matcher customField = fieldId == null ? null : CUSTOM_FIELD_ID.matcher(fieldId);
+        if (customField == null || !customField.matches()) {
+            return null;
+        }
+        // JQL refers to custom fields by ID as cf[10100], unlike names these are unique
+        return new String[] {fieldId, "cf[" + customField.group(1) + "]"};
+    }
+
+    /**
+     * @return custom fields with names replaced by IDs where the metadata knows them
+     */
+    private static Map<String, String> resolveFieldIds(final Map<String, String> customFields,
+                                                       final JiraMetadata metadata) {
+        if (metadata == null || customFields.isEmpty()) {
+            return customFields;
+        }
+        final Map<String, String> resolved = new LinkedHashMap<>();
+        customFields.forEach((field, value) -> {
+            final String fieldId = metadata.fieldId(field);
+            resolved.put(fieldId == null ? field : fieldId, value);
+        });
+        return Collections.unmodifiableMap(resolved);
+    }
+
+    private static JiraHashAlgorithm parseHashAlgorithm(final String name) {
+        final JiraHashAlgorithm algorithm = JiraHashAlgorithm.parse(name);
+        if (algorithm == null) {
+            throw new JiraClientException("Graylog hash algorithm " + name + " is not supported.");
+        }
+        return algorithm;
+    }
+
+    private static JiraAuthType parseAuthType(final String name) {
+        final JiraAuthType type = JiraAuthType.parse(name);
+        if (type == null) {
+            throw new JiraClientException("Authentication " + name + " is not supported.");
+        }
+        return type;
+    }
+
+    private static Headers buildAuthHeaders(final JiraAuthType type, final String username, final String password) {
+        return switch (type) {
+            case BASIC -> Headers.of(HEADER_AUTH, "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8)));
+            case BEARER -> Headers.of(HEADER_AUTH, "Bearer " + password);
+            case SESSION -> Headers.of();
+        };
+    }
+
+    private static JiraDuplicateMode parseDuplicateMode(final String name) {
+        final JiraDuplicateMode mode = JiraDuplicateMode.parse(name);
+        if (mode == null) {
+            throw new JiraClientException("Duplicate handling " + name + " is not supported.");
+        }
+        return mode;
+    }
+
+    /**
+     * Metadata is compared by identity, a refreshed one compiles the config again.
+     */
+    private record CacheKey(JiraEventNotificationConfig config, JiraMetadata metadata) {
+    }
+
+    private static Map<String, String> parseMapValues(final String mapString) {
+        if (Strings.isNullOrEmpty(mapString)) {
+            return Collections.emptyMap();
+        }
+        return Splitter.on(',').withKeyValueSeparator('=').split(mapString);
+    }
+}
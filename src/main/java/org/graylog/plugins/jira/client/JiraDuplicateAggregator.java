@@ -0,0 +1,210 @@
+package org.graylog.plugins.jira.client;
+
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Counts duplicate events per issue for the notification's flush interval and then hands the counts over to be
+ * written to Jira at once, as a digest comment or as occurrence fields, instead of one comment per event.
+ * Counts are kept in memory only. Counts of a flush failing with a transient error are counted again, together
+ * with duplicates arriving meanwhile, and written after another interval. Counts of other failures are logged and
+ * dropped.
+ */
+@Singleton
+public class JiraDuplicateAggregator extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraDuplicateAggregator.class);
+
+    static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    private final ConcurrentMap<Key, Occurrences> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("jira-duplicate-aggregator-%d").setDaemon(true).build());
+
+    @Inject
+    public JiraDuplicateAggregator() {
+    }
+
+    /**
+     * Counts duplicate of given issue. Model of coalesced events counts with its occurrence count and last occurrence.
+     *
+     * @param occurredAt time of the event, replayed or delayed events do not move the last occurrence back
+     * @param flusher    writes the occurrences to Jira once the interval has passed, the one of the first duplicate is
+     *                   used
+     */
+    public void add(final String notificationId, final String issueId, final int flushSeconds,
+                    final Map<String, Object> model, final Instant occurredAt,
+                    final Consumer<Occurrences> flusher) {
+        final Key key = new Key(notificationId, issueId);
+        final int count = model.get(JiraClient.MODEL_OCCURRENCE_COUNT) instanceof Integer n ? n : 1;
+        final Instant lastOccurredAt = model.get(JiraClient.MODEL_LAST_OCCURRENCE) instanceof String last
+                ? Instant.parse(last) : occurredAt;
+
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        pending.compute(key, (k, occurrences) -> {
+            if (occurrences == null) {
+                opened.set(true);
+                return new Occurrences(flusher, flushSeconds, model, count, occurredAt, lastOccurredAt);
+            }
+            occurrences.add(model, count, occurredAt, lastOccurredAt);
+            return occurrences;
+        });
+        if (opened.get()) {
+            scheduler.schedule(() -> flush(key), flushSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    protected void startUp() {
+        // occurrences are counted for incoming duplicates
+    }
+
+    @Override
+    protected void shutDown() {
+        scheduler.shutdownNow();
+        LOG.debug("Flushing duplicates of {} issue(s)", pending.size());
+        flushAll();
+    }
+
+    void flushAll() {
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(final Key key) {
+        final Occurrences occurrences = pending.remove(key);
+        if (occurrences == null) {
+            return;
+        }
+        try {
+            occurrences.flusher.accept(occurrences);
+        } catch (final JiraClientException e) {
+            if (e.isTransient() && occurrences.attempts < MAX_FLUSH_ATTEMPTS && recount(key, occurrences)) {
+                LOG.warn("Failed to write {} duplicate(s) of notification {} to Jira issue {}, trying again in {} s: {}",
+                        occurrences.count, key.notificationId(), key.issueId(), occurrences.flushSeconds,
+                        e.getMessage());
+                return;
+            }
+            LOG.error("Failed to write {} duplicate(s) of notification {} to Jira issue {}",
+                    occurrences.count, key.notificationId(), key.issueId(), e);
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to write {} duplicate(s) of notification {} to Jira issue {}",
+                    occurrences.count, key.notificationId(), key.issueId(), e);
+        }
+    }
+
+    /**
+     * Puts counts of failed flush back, adding those counted meanwhile.
+     *
+     * @return false when the counts could not be put back on shutdown
+     */
+    private boolean recount(final Key key, final Occurrences failed) {
+        if (scheduler.isShutdown()) {
+            return false;
+        }
+        failed.attempts++;
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        pending.compute(key, (k, occurrences) -> {
+            if (occurrences == null) {
+                opened.set(true);
+            } else {
+                failed.merge(occurrences);
+            }
+            return failed;
+        });
+        if (opened.get()) {
+            try {
+                scheduler.schedule(() -> flush(key), failed.flushSeconds, TimeUnit.SECONDS);
+            } catch (final RejectedExecutionException e) {
+                // shut down meanwhile, the counts are flushed by shutdown
+            }
+        }
+        return true;
+    }
+
+    private record Key(String notificationId, String issueId) {
+    }
+
+    /**
+     * Mutated only inside {@link ConcurrentMap#compute}, read after it was removed from the map.
+     */
+    public static final class Occurrences {
+        private final Consumer<Occurrences> flusher;
+        private final int flushSeconds;
+        private Map<String, Object> model;
+        private Instant firstOccurrence;
+        private Instant lastOccurrence;
+        private int count;
+        private int attempts;
+
+        Occurrences(final Consumer<Occurrences> flusher, final int flushSeconds, final Map<String, Object> model,
+                    final int count, final Instant firstOccurrence, final Instant lastOccurrence) {
+            this.flusher = flusher;
+            this.flushSeconds = flushSeconds;
+            this.model = model;
+            this.count = count;
+            this.firstOccurrence = firstOccurrence;
+            this.lastOccurrence = lastOccurrence;
+        }
+
+        void add(final Map<String, Object> eventModel, final int eventCount, final Instant first, final Instant last) {
+            model = eventModel;
+            count += eventCount;
+            extend(first, last);
+        }
+
+        /**
+         * Takes over the duplicates counted after these.
+         */
+        void merge(final Occurrences other) {
+            model = other.model;
+            count += other.count;
+            extend(other.firstOccurrence, other.lastOccurrence);
+        }
+
+        private void extend(final Instant first, final Instant last) {
+            if (first.isBefore(firstOccurrence)) {
+                firstOccurrence = first;
+            }
+            if (last.isAfter(lastOccurrence)) {
+                lastOccurrence = last;
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public Instant lastOccurrence() {
+            return lastOccurrence;
+        }
+
+        /**
+         * @return model of the last duplicate carrying the counted occurrences
+         */
+        public Map<String, Object> toModel() {
+            final Map<String, Object> values = new HashMap<>();
+            values.put(JiraClient.MODEL_OCCURRENCE_COUNT, count);
+            values.put(JiraClient.MODEL_FIRST_OCCURRENCE, firstOccurrence.toString());
+            values.put(JiraClient.MODEL_LAST_OCCURRENCE, lastOccurrence.toString());
+            return JiraTemplateRenderer.withValues(model, values);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.graylog.plugins.jira.client;
+
+import java.util.Locale;
+
+/**
+ * What is written to Jira when an event turns out to be a duplicate of an existing issue.
+ */
+public enum JiraDuplicateMode {
+    /**
+     * Comment for every duplicate event.
+     */
+    COMMENT,
+    /**
+     * One summary comment per flush interval, carrying the number of duplicates.
+     */
+    DIGEST,
+    /**
+     * Occurrence count and last seen custom fields updated once per flush interval, no comments.
+     */
+    COUNTER;
+
+    /**
+     * @return mode of given name (case insensitive) or null when there is none
+     */
+    public static JiraDuplicateMode parse(final String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
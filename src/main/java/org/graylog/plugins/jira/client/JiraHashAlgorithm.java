@@ -0,0 +1,138 @@
+package org.graylog.plugins.jira.client;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Algorithms of the Graylog hash stored in the issue. MD5 keeps the hashes of issues created by older versions,
+ * MURMUR3_128 is a faster non-cryptographic hash of the same length. Text is always encoded as UTF-8.
+ */
+public enum JiraHashAlgorithm {
+    MD5 {
+        @Override
+        Sink newSink() {
+            final MessageDigest digest = MD5_DIGEST.get();
+            digest.reset();
+            return new Sink() {
+                @Override
+                void update(final ByteBuffer bytes) {
+                    digest.update(bytes);
+                }
+
+                @Override
+                byte[] digest() {
+                    return digest.digest();
+                }
+            };
+        }
+    },
+    MURMUR3_128 {
+        @Override
+        Sink newSink() {
+            final Hasher hasher = Hashing.murmur3_128().newHasher();
+            return new Sink() {
+                @Override
+                void update(final ByteBuffer bytes) {
+                    hasher.putBytes(bytes);
+                }
+
+                @Override
+                byte[] digest() {
+                    return hasher.hash().asBytes();
+                }
+            };
+        }
+    };
+
+    private static final BaseEncoding HEX = BaseEncoding.base16();
+    private static final ThreadLocal<MessageDigest> MD5_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private static final ThreadLocal<CharsetEncoder> ENCODER = ThreadLocal.withInitial(() ->
+            StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+
+    /**
+     * @return algorithm of given name (case insensitive) or null when there is none
+     */
+    public static JiraHashAlgorithm parse(final String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return sink for a single hash, to be finished before the thread starts another one
+     */
+    abstract Sink newSink();
+
+    /**
+     * @return upper case hex of the hash of given text
+     */
+    public String hash(final CharSequence text) {
+        final Sink sink = newSink();
+        sink.put(text, 0, text.length());
+        return sink.hash();
+    }
+
+    /**
+     * Hashes text given in parts, e.g. the groups of a regex match, without joining them first. Parts are
+     * encoded through a small per-thread buffer.
+     */
+    abstract static class Sink {
+
+        void put(final CharSequence text, final int start, final int end) {
+            final CharBuffer chars = CharBuffer.wrap(text, start, end);
+            final CharsetEncoder encoder = ENCODER.get().reset();
+            final ByteBuffer bytes = BUFFER.get();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, true);
+                drain(bytes);
+            } while (result.isOverflow());
+            do {
+                result = encoder.flush(bytes);
+                drain(bytes);
+            } while (result.isOverflow());
+        }
+
+        /**
+         * @return upper case hex of the hash
+         */
+        String hash() {
+            return HEX.encode(digest());
+        }
+
+        private void drain(final ByteBuffer bytes) {
+            bytes.flip();
+            update(bytes);
+            bytes.clear();
+        }
+
+        abstract void update(ByteBuffer bytes);
+
+        abstract byte[] digest();
+    }
+}
@@ -0,0 +1,141 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.AbstractIdleService;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Keeps one {@link OkHttpClient} per Jira URL and proxy URL combination, and one per Jira user for session
+ * authentication, holding the user's session cookie.
+ * All clients are derived from a single base client, so they share its connection pool, dispatcher,
+ * circuit breaker and rate limiter.
+ */
+@Singleton
+public class JiraHttpClientRegistry extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraHttpClientRegistry.class);
+
+    private final OkHttpClient baseClient;
+    private final ConcurrentMap<ClientKey, OkHttpClient> clients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ClientKey, SessionClient> sessionClients = new ConcurrentHashMap<>();
+
+    @Inject
+    public JiraHttpClientRegistry(@Named(JiraPluginConfiguration.HTTP_CONNECT_TIMEOUT) final Duration connectTimeout,
+                                  @Named(JiraPluginConfiguration.HTTP_READ_TIMEOUT) final Duration readTimeout,
+                                  @Named(JiraPluginConfiguration.HTTP_WRITE_TIMEOUT) final Duration writeTimeout,
+                                  @Named(JiraPluginConfiguration.HTTP_MAX_IDLE_CONNECTIONS) final int maxIdleConnections,
+                                  @Named(JiraPluginConfiguration.HTTP_KEEP_ALIVE) final Duration keepAlive,
+                                  final JiraCircuitBreaker circuitBreaker,
+                                  final JiraRateLimiter rateLimiter) {
+        this.baseClient = new OkHttpClient.Builder()
+                .connectTimeout(connectTimeout.toMilliseconds(), TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout.toMilliseconds(), TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeout.toMilliseconds(), TimeUnit.MILLISECONDS)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMilliseconds(), TimeUnit.MILLISECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
+                // waiting for a permit is not part of the call time the breaker judges Jira by
+                .addInterceptor(rateLimiter)
+                .addInterceptor(circuitBreaker)
+                .build();
+    }
+
+    /**
+     * @return shared client for given Jira instance, going through the proxy if one is set
+     */
+    public OkHttpClient clientFor(final String jiraURL, final String proxyURL) {
+        final String proxy = Strings.nullToEmpty(proxyURL);
+        return clients.computeIfAbsent(new ClientKey(jiraURL, proxy), key -> {
+            if (proxy.isEmpty()) {
+                return baseClient;
+            }
+            return baseClient.newBuilder().proxy(buildProxy(proxy)).build();
+        });
+    }
+
+    /**
+     * @return shared client for the Jira instance of given notification, logged in as its user for
+     * {@link JiraAuthType#SESSION}
+     */
+    public OkHttpClient clientFor(final JiraEventNotificationConfig config) {
+        return clientFor(config, true);
+    }
+
+    /**
+     * @param updatePassword whether the password of given config replaces the one of an existing session, which
+     *                       callers working with a config that may be outdated do not
+     */
+    OkHttpClient clientFor(final JiraEventNotificationConfig config, final boolean updatePassword) {
+        if (JiraAuthType.parse(config.authType()) != JiraAuthType.SESSION) {
+            return clientFor(config.jiraURL(), config.proxyURL());
+        }
+        final SessionClient sessionClient = sessionClients.computeIfAbsent(
+                new ClientKey(config.jiraURL(), Strings.nullToEmpty(config.proxyURL()), config.credUsername()), key -> {
+                    final JiraSessionAuthenticator authenticator = new JiraSessionAuthenticator(
+                            JiraCompiledConfig.of(config).sessionURL(),
+                            config.credUsername(), config.credPassword());
+                    final OkHttpClient client = clientFor(config.jiraURL(), config.proxyURL()).newBuilder()
+                            .cookieJar(authenticator)
+                            .addInterceptor(authenticator)
+                            .build();
+                    return new SessionClient(client, authenticator);
+                });
+        if (updatePassword) {
+            sessionClient.authenticator().password(config.credPassword());
+        }
+        return sessionClient.client();
+    }
+
+    @Override
+    protected void startUp() {
+        // clients are created lazily
+    }
+
+    @Override
+    protected void shutDown() {
+        LOG.debug("Shutting down {} Jira HTTP client(s)", clients.size());
+        clients.clear();
+        sessionClients.clear();
+        baseClient.dispatcher().executorService().shutdown();
+        baseClient.connectionPool().evictAll();
+    }
+
+    private Proxy buildProxy(final String proxyURL) {
+        try {
+            final URI uri = new URI(proxyURL);
+            return new Proxy(Proxy.Type.HTTP, new InetSocketAddress(uri.getHost(), uri.getPort()));
+        } catch (final URISyntaxException e) {
+            throw new JiraClientException("Proxy URL is invalid format. Proxy URL=" + proxyURL, e);
+        }
+    }
+
+    private record ClientKey(String jiraURL, String proxyURL, String username) {
+        ClientKey(final String jiraURL, final String proxyURL) {
+            this(jiraURL, proxyURL, "");
+        }
+    }
+
+    private record SessionClient(OkHttpClient client, JiraSessionAuthenticator authenticator) {
+    }
+}
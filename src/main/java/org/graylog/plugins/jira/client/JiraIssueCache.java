@@ -0,0 +1,76 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog2.shared.metrics.MetricUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+/**
+ * Bounded in-memory map of Graylog hash to Jira issue ID, so recurring events do not need a JQL search.
+ * Entries expire after the configured TTL, which also bounds how long an issue no longer matching the search
+ * filter (e.g. resolved) can be reused. Mappings are kept per search filter, as it decides which issue is found.
+ */
+@Singleton
+public class JiraIssueCache {
+
+    private final Cache<Key, String> cache;
+
+    @Inject
+    public JiraIssueCache(@Named(JiraPluginConfiguration.DEDUP_CACHE_SIZE) final int maximumSize,
+                          @Named(JiraPluginConfiguration.DEDUP_CACHE_TTL) final Duration ttl,
+                          final MetricRegistry metricRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl.toMilliseconds(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+
+        MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraIssueCache.class, "hits"),
+                (Gauge<Long>) () -> stats().hitCount());
+        MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraIssueCache.class, "misses"),
+                (Gauge<Long>) () -> stats().missCount());
+        MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraIssueCache.class, "evictions"),
+                (Gauge<Long>) () -> stats().evictionCount());
+        MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraIssueCache.class, "size"),
+                (Gauge<Long>) cache::size);
+    }
+
+    /**
+     * @return ID of known issue with given Graylog hash or null
+     */
+    public String get(final String jiraURL, final String projectKey, final String searchFilter,
+                      final String graylogHash) {
+        return cache.getIfPresent(new Key(jiraURL, projectKey, searchFilter, graylogHash));
+    }
+
+    public void put(final String jiraURL, final String projectKey, final String searchFilter,
+                    final String graylogHash, final String issueId) {
+        cache.put(new Key(jiraURL, projectKey, searchFilter, graylogHash), issueId);
+    }
+
+    /**
+     * Forgets issue of given Graylog hash, e.g. when it was deleted.
+     */
+    public void remove(final String jiraURL, final String projectKey, final String searchFilter,
+                       final String graylogHash) {
+        cache.invalidate(new Key(jiraURL, projectKey, searchFilter, graylogHash));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private record Key(String jiraURL, String projectKey, String searchFilter, String graylogHash) {
+    }
+}
@@ -0,0 +1,202 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog2.cluster.lock.LockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+/**
+ * Lets only one caller at a time, on this node and in the whole cluster, search and create the issue of a Graylog
+ * hash. Callers on this node wait on a striped local lock, so that only one of them competes for the cluster lock.
+ * Locks are held for the search and create only, duplicates already known are handled without them. Cluster locks
+ * expire after Graylog's lock TTL (at least 60 seconds), so they are extended while the action runs, which may take
+ * longer with retried searches and slow creates.
+ */
+@Singleton
+public class JiraIssueCreateLock extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraIssueCreateLock.class);
+    private static final int STRIPES = 256;
+    private static final long MIN_POLL_MILLIS = 10;
+    private static final long MAX_POLL_MILLIS = 500;
+    // a third of the shortest lock TTL of Graylog
+    private static final long EXTEND_INTERVAL_MILLIS = 20_000;
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final LockService lockService;
+    private final long extendIntervalMillis;
+    private final Striped<Lock> localLocks = Striped.lock(STRIPES);
+    private final ScheduledExecutorService extender = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("jira-create-lock-%d").setDaemon(true).build());
+
+    @Inject
+    public JiraIssueCreateLock(@Named(JiraPluginConfiguration.CREATE_LOCK_ENABLED) final boolean enabled,
+                               @Named(JiraPluginConfiguration.CREATE_LOCK_TIMEOUT) final Duration timeout,
+                               final LockService lockService) {
+        this(enabled, timeout, lockService, EXTEND_INTERVAL_MILLIS);
+    }
+
+    JiraIssueCreateLock(final boolean enabled, final Duration timeout, final LockService lockService,
+                        final long extendIntervalMillis) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeout.toMilliseconds();
+        this.lockService = lockService;
+        this.extendIntervalMillis = extendIntervalMillis;
+    }
+
+    @Override
+    protected void startUp() {
+        // locks are taken by callers
+    }
+
+    @Override
+    protected void shutDown() {
+        extender.shutdownNow();
+    }
+
+    /**
+     * Calls given action holding the lock of the Graylog hash in given Jira project.
+     *
+     * @throws JiraClientException transient one, when the lock could not be acquired in time
+     */
+    public <T> T call(final String jiraURL, final String projectKey, final String graylogHash,
+                      final Supplier<T> action) {
+        return call(jiraURL, projectKey, graylogHash, true, action);
+    }
+
+    /**
+     * Calls given action holding the lock of the Graylog hash on this node only, for callers whose result is not
+     * shared with the other nodes anyway.
+     *
+     * @throws JiraClientException transient one, when the lock could not be acquired in time
+     */
+    public <T> T callOnNode(final String jiraURL, final String projectKey, final String graylogHash,
+                            final Supplier<T> action) {
+        return call(jiraURL, projectKey, graylogHash, false, action);
+    }
+
+    private <T> T call(final String jiraURL, final String projectKey, final String graylogHash,
+                       final boolean clusterWide, final Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        final String resource = resource(jiraURL, projectKey, graylogHash);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final Lock localLock = localLocks.get(resource);
+        try {
+            if (!localLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw timeout(graylogHash, null);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw timeout(graylogHash, e);
+        }
+        try {
+            if (!clusterWide) {
+                return action.get();
+            }
+            final org.graylog2.cluster.lock.Lock clusterLock = lockCluster(resource, graylogHash, deadline);
+            final ScheduledFuture<?> extension = extendWhileHeld(clusterLock);
+            try {
+                return action.get();
+            } finally {
+                if (extension != null) {
+                    extension.cancel(false);
+                }
+                unlockCluster(clusterLock);
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Cluster locks cannot be waited for, they are polled with growing delay.
+     */
+    private org.graylog2.cluster.lock.Lock lockCluster(final String resource, final String graylogHash,
+                                                       final long deadline) {
+        long pollMillis = MIN_POLL_MILLIS;
+        while (true) {
+            final Optional<org.graylog2.cluster.lock.Lock> lock = lockService.lock(resource);
+            if (lock.isPresent()) {
+                return lock.get();
+            }
+            final long leftMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (leftMillis <= 0) {
+                throw timeout(graylogHash, null);
+            }
+            try {
+                Thread.sleep(Math.min(pollMillis, leftMillis));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw timeout(graylogHash, e);
+            }
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * @return extension to be cancelled on unlock, or null when shut down already
+     */
+    private ScheduledFuture<?> extendWhileHeld(final org.graylog2.cluster.lock.Lock lock) {
+        try {
+            return extender.scheduleWithFixedDelay(() -> extendCluster(lock), extendIntervalMillis,
+                    extendIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private void extendCluster(final org.graylog2.cluster.lock.Lock lock) {
+        try {
+            if (lockService.extendLock(lock).isEmpty()) {
+                LOG.warn("Lost cluster lock {}, another node may create the same Jira issue", lock.resource());
+            }
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to extend cluster lock {}", lock.resource(), e);
+        }
+    }
+
+    private void unlockCluster(final org.graylog2.cluster.lock.Lock lock) {
+        try {
+            lockService.unlock(lock);
+        } catch (final RuntimeException e) {
+            // the lock expires on its own
+            LOG.warn("Failed to release cluster lock {}", lock.resource(), e);
+        }
+    }
+
+    private static JiraClientException timeout(final String graylogHash, final Throwable cause) {
+        return JiraClientException.transientFailure("Timed out waiting for another Jira issue create of Graylog hash "
+                + graylogHash + ".", cause);
+    }
+
+    /**
+     * @return lock name of fixed length, independent of the length of Jira URL
+     */
+    private static String resource(final String jiraURL, final String projectKey, final String graylogHash) {
+        return "jira-issue-create-" + Hashing.murmur3_128()
+                .hashString(jiraURL + "\n" + projectKey + "\n" + graylogHash, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,144 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.base.Strings;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Issue fields which come from the notification config rather than from the event. They are the same for every
+ * issue of a config, so their JSON is written once and copied into every payload. Project, issue type, priority
+ * and components are sent by ID when the metadata knows them, by name otherwise.
+ */
+public final class JiraIssueFields {
+
+    private final String graylogHashCustomField;
+    private final Pattern graylogHashPattern;
+    private final JiraHashAlgorithm graylogHashAlgorithm;
+    private final String json;
+
+    @SuppressWarnings("java:S107")
+    public JiraIssueFields(String projectKey, String issueType, String assigneeName, String priority,
+                           Set<String> labels, Set<String> components, String environment,
+                           String graylogHashCustomField, Pattern graylogHashPattern,
+                           JiraHashAlgorithm graylogHashAlgorithm, Map<String, String> customFields) {
+        this(projectKey, issueType, assigneeName, priority, labels, components, environment, graylogHashCustomField,
+                graylogHashPattern, graylogHashAlgorithm, customFields, null);
+    }
+
+    @SuppressWarnings("java:S107")
+    public JiraIssueFields(String projectKey, String issueType, String assigneeName, String priority,
+                           Set<String> labels, Set<String> components, String environment,
+                           String graylogHashCustomField, Pattern graylogHashPattern,
+                           JiraHashAlgorithm graylogHashAlgorithm, Map<String, String> customFields,
+                           JiraMetadata metadata) {
+        this.graylogHashCustomField = graylogHashCustomField;
+        this.graylogHashPattern = graylogHashPattern;
+        this.graylogHashAlgorithm = graylogHashAlgorithm;
+
+        // custom fields never replace the standard ones
+        final Set<String> written = new HashSet<>(Set.of("summary", "description"));
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator gen = JiraIssueSerializer.createGenerator(writer)) {
+            gen.writeStartObject();
+            writeReference(gen, written, "project", "key", projectKey.trim(),
+                    metadata == null ? null : metadata.projectId());
+            writeReference(gen, written, "issuetype", "name", issueType.trim(),
+                    metadata == null ? null : metadata.issueTypeId(issueType));
+            if (!Strings.isNullOrEmpty(assigneeName)) {
+                writeNamed(gen, written, "assignee", "name", assigneeName.trim());
+            }
+            if (!Strings.isNullOrEmpty(priority)) {
+                writeReference(gen, written, "priority", "name", priority.trim(),
+                        metadata == null ? null : metadata.priorityId(issueType, priority));
+            }
+            if (labels != null && !labels.isEmpty()) {
+                written.add("labels");
+                gen.writeArrayFieldStart("labels");
+                for (final String label : labels) {
+                    gen.writeString(label);
+                }
+                gen.writeEndArray();
+            }
+            if (components != null && !components.isEmpty()) {
+                written.add("components");
+                gen.writeArrayFieldStart("components");
+                for (final String component : components) {
+                    final String componentId = metadata == null ? null : metadata.componentId(issueType, component);
+                    gen.writeStartObject();
+                    if (componentId == null) {
+                        gen.writeStringField("name", component.trim());
+                    } else {
+                        gen.writeStringField("id", componentId);
+                    }
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+            }
+            if (!Strings.isNullOrEmpty(environment)) {
+                written.add("environment");
+                gen.writeStringField("environment", environment.trim());
+            }
+            if (!Strings.isNullOrEmpty(graylogHashCustomField)) {
+                written.add(graylogHashCustomField);
+            }
+            for (final Map.Entry<String, String> customField : customFields.entrySet()) {
+                if (written.add(customField.getKey())) {
+                    gen.writeStringField(customField.getKey(), customField.getValue());
+                }
+            }
+            gen.writeEndObject();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // members only, without the enclosing braces
+        final String object = writer.toString();
+        this.json = object.substring(1, object.length() - 1);
+    }
+
+    public String graylogHashCustomField() {
+        return graylogHashCustomField;
+    }
+
+    public Pattern graylogHashPattern() {
+        return graylogHashPattern;
+    }
+
+    public JiraHashAlgorithm graylogHashAlgorithm() {
+        return graylogHashAlgorithm;
+    }
+
+    /**
+     * @return serialized fields, comma separated object members
+     */
+    String json() {
+        return json;
+    }
+
+    private static void writeNamed(final JsonGenerator gen, final Set<String> written, final String field,
+                                   final String property, final String value) throws IOException {
+        written.add(field);
+        gen.writeObjectFieldStart(field);
+        gen.writeStringField(property, value);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes reference by ID, or by given property when the ID is not known.
+     */
+    private static void writeReference(final JsonGenerator gen, final Set<String> written, final String field,
+                                       final String property, final String value, final String id)
+            throws IOException {
+        if (id == null) {
+            writeNamed(gen, written, field, property, value);
+        } else {
+            writeNamed(gen, written, field, "id", id);
+        }
+    }
+}
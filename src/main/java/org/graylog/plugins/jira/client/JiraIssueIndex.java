@@ -0,0 +1,169 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.hash.Hashing;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog2.database.MongoConnection;
+import org.graylog2.database.utils.MongoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+/**
+ * Cluster wide map of Graylog hash to Jira issue ID kept in MongoDB, so it survives restarts and is shared
+ * by all Graylog nodes. Entries are removed by a TTL index once they expire. Mappings are kept per search filter,
+ * as it decides which issue is found. Disabled unless configured, then nothing is read or written.
+ */
+@Singleton
+public class JiraIssueIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraIssueIndex.class);
+
+    static final String COLLECTION_NAME = "jira_issue_index";
+    static final String FIELD_JIRA_URL = "jira_url";
+    static final String FIELD_PROJECT_KEY = "project_key";
+    static final String FIELD_SEARCH_FILTER_HASH = "search_filter_hash";
+    static final String FIELD_GRAYLOG_HASH = "graylog_hash";
+    static final String FIELD_ISSUE_ID = "issue_id";
+    static final String FIELD_EXPIRES_AT = "expires_at";
+
+    private final boolean enabled;
+    private final MongoCollection<Document> collection;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    @Inject
+    public JiraIssueIndex(final MongoConnection mongoConnection,
+                          @Named(JiraPluginConfiguration.DEDUP_INDEX_ENABLED) final boolean enabled,
+                          @Named(JiraPluginConfiguration.DEDUP_INDEX_TTL) final Duration ttl) {
+        this(enabled ? mongoConnection.getMongoDatabase().getCollection(COLLECTION_NAME) : null, enabled, ttl,
+                Clock.systemUTC());
+    }
+
+    JiraIssueIndex(final MongoCollection<Document> collection, final boolean enabled, final Duration ttl,
+                   final Clock clock) {
+        this.enabled = enabled;
+        this.collection = collection;
+        this.ttlMillis = ttl.toMilliseconds();
+        this.clock = clock;
+        if (!enabled) {
+            return;
+        }
+
+        dropLegacyIndex();
+        collection.createIndex(Indexes.ascending(FIELD_JIRA_URL, FIELD_PROJECT_KEY, FIELD_SEARCH_FILTER_HASH,
+                FIELD_GRAYLOG_HASH), new IndexOptions().unique(true));
+        collection.createIndex(Indexes.ascending(FIELD_EXPIRES_AT),
+                new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+    }
+
+    /**
+     * @return true when mappings are shared with the other nodes
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return ID of known issue with given Graylog hash or null
+     */
+    public String get(final String jiraURL, final String projectKey, final String searchFilter,
+                      final String graylogHash) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            final Document document = collection
+                    .find(Filters.and(keyFilter(jiraURL, projectKey, searchFilter, graylogHash),
+                            Filters.gt(FIELD_EXPIRES_AT, Date.from(clock.instant()))))
+                    .projection(Projections.include(FIELD_ISSUE_ID))
+                    .first();
+            return document == null ? null : document.getString(FIELD_ISSUE_ID);
+        } catch (final MongoException e) {
+            LOG.warn("Failed to look up Graylog hash {} in Jira issue index", graylogHash, e);
+            return null;
+        }
+    }
+
+    public void put(final String jiraURL, final String projectKey, final String searchFilter,
+                    final String graylogHash, final String issueId) {
+        if (!enabled) {
+            return;
+        }
+        final Instant expiresAt = clock.instant().plusMillis(ttlMillis);
+        try {
+            collection.updateOne(keyFilter(jiraURL, projectKey, searchFilter, graylogHash),
+                    Updates.combine(
+                            Updates.set(FIELD_ISSUE_ID, issueId),
+                            Updates.set(FIELD_EXPIRES_AT, Date.from(expiresAt))),
+                    new UpdateOptions().upsert(true));
+        } catch (final MongoException e) {
+            // concurrent upsert of the same hash from another node, first one wins
+            if (!MongoUtils.isDuplicateKeyError(e)) {
+                LOG.warn("Failed to store Graylog hash {} in Jira issue index", graylogHash, e);
+            }
+        }
+    }
+
+    /**
+     * Forgets issue of given Graylog hash, e.g. when it was deleted.
+     */
+    public void remove(final String jiraURL, final String projectKey, final String searchFilter,
+                       final String graylogHash) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            collection.deleteOne(keyFilter(jiraURL, projectKey, searchFilter, graylogHash));
+        } catch (final MongoException e) {
+            LOG.warn("Failed to remove Graylog hash {} from Jira issue index", graylogHash, e);
+        }
+    }
+
+    /**
+     * Unique index of earlier versions did not include the search filter.
+     */
+    private void dropLegacyIndex() {
+        try {
+            collection.dropIndex(Indexes.ascending(FIELD_JIRA_URL, FIELD_PROJECT_KEY, FIELD_GRAYLOG_HASH));
+        } catch (final MongoException e) {
+            // not there
+        }
+    }
+
+    private Bson keyFilter(final String jiraURL, final String projectKey, final String searchFilter,
+                           final String graylogHash) {
+        return Filters.and(
+                Filters.eq(FIELD_JIRA_URL, jiraURL),
+                Filters.eq(FIELD_PROJECT_KEY, projectKey),
+                Filters.eq(FIELD_SEARCH_FILTER_HASH, searchFilterHash(searchFilter)),
+                Filters.eq(FIELD_GRAYLOG_HASH, graylogHash));
+    }
+
+    /**
+     * @return hash of fixed length, search filters may be longer than an index key allows
+     */
+    private static String searchFilterHash(final String searchFilter) {
+        return Hashing.murmur3_128().hashString(searchFilter, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -0,0 +1,109 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Writes issue payloads straight to the request, without building a map tree or a string first.
+ */
+final class JiraIssueSerializer {
+
+    static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private static final JsonFactory FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private JiraIssueSerializer() {
+    }
+
+    static JsonGenerator createGenerator(final Writer writer) throws IOException {
+        return FACTORY.createGenerator(writer);
+    }
+
+    static String toJsonString(final JiraIssue jiraIssue) {
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator gen = createGenerator(writer)) {
+            write(gen, jiraIssue);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * @return body for issue create
+     */
+    static RequestBody requestBody(final JiraIssue jiraIssue) {
+        return new StreamingBody() {
+            @Override
+            void write(final JsonGenerator gen) throws IOException {
+                JiraIssueSerializer.write(gen, jiraIssue);
+            }
+        };
+    }
+
+    /**
+     * @return body for issue bulk create
+     */
+    static RequestBody bulkRequestBody(final List<JiraIssue> jiraIssues) {
+        return new StreamingBody() {
+            @Override
+            void write(final JsonGenerator gen) throws IOException {
+                gen.writeStartObject();
+                gen.writeArrayFieldStart("issueUpdates");
+                for (final JiraIssue jiraIssue : jiraIssues) {
+                    JiraIssueSerializer.write(gen, jiraIssue);
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    static void write(final JsonGenerator gen, final JiraIssue jiraIssue) throws IOException {
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("fields");
+        // config fields are never empty (project and issue type), so the generator's first member is not the first
+        gen.writeRaw(jiraIssue.fields().json());
+        gen.writeRaw(',');
+        gen.writeStringField("summary", jiraIssue.summary());
+        gen.writeStringField("description", jiraIssue.description());
+        final String graylogHashCustomField = jiraIssue.fields().graylogHashCustomField();
+        if (graylogHashCustomField != null && !graylogHashCustomField.isEmpty()) {
+            gen.writeStringField(graylogHashCustomField, jiraIssue.createGraylogHash());
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private abstract static class StreamingBody extends RequestBody {
+
+        @Override
+        public MediaType contentType() {
+            return JSON;
+        }
+
+        @Override
+        public void writeTo(final BufferedSink sink) throws IOException {
+            try (JsonGenerator gen = FACTORY.createGenerator(sink.outputStream(), JsonEncoding.UTF8)) {
+                write(gen);
+            }
+        }
+
+        abstract void write(JsonGenerator gen) throws IOException;
+    }
+}
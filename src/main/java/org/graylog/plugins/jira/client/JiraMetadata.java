@@ -0,0 +1,173 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Strings;
+
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.graylog2.plugin.rest.ValidationResult;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fields of a Jira instance and create metadata of one of its projects: IDs of the project, its issue types, and
+ * the priorities and components which can be set on their create screens. Names are matched case insensitively,
+ * as Jira does. Snapshots are replaced as a whole on refresh and compared by identity.
+ */
+public final class JiraMetadata {
+
+    private final Map<String, String> fieldIdsByName;
+    private final Map<String, String> fieldNamesById;
+    private final String projectId;
+    private final Map<String, IssueType> issueTypes;
+
+    JiraMetadata(final Map<String, String> fieldIdsByName, final Map<String, String> fieldNamesById,
+                 final String projectId, final Map<String, IssueType> issueTypes) {
+        this.fieldIdsByName = fieldIdsByName;
+        this.fieldNamesById = fieldNamesById;
+        this.projectId = projectId;
+        this.issueTypes = issueTypes;
+    }
+
+    /**
+     * @param fields    response of {@code /rest/api/2/field}
+     * @param createMeta response of {@code /rest/api/2/issue/createmeta} for one project with issue type fields
+     */
+    static JiraMetadata parse(final JsonNode fields, final JsonNode createMeta) {
+        final Map<String, String> fieldIdsByName = new HashMap<>();
+        final Map<String, String> fieldNamesById = new HashMap<>();
+        for (final JsonNode field : fields) {
+            final String id = field.path("id").asText();
+            final String name = field.path("name").asText();
+            fieldNamesById.put(id, name);
+            // the first of fields sharing a name wins, the others can be given by ID
+            fieldIdsByName.putIfAbsent(normalize(name), id);
+        }
+
+        final JsonNode project = createMeta.path("projects").path(0);
+        final Map<String, IssueType> issueTypes = new HashMap<>();
+        for (final JsonNode issueType : project.path("issuetypes")) {
+            final JsonNode issueTypeFields = issueType.path("fields");
+            issueTypes.put(normalize(issueType.path("name").asText()), new IssueType(
+                    issueType.path("id").asText(),
+                    issueTypeFields.has("priority") ? allowedValues(issueTypeFields.path("priority")) : null,
+                    issueTypeFields.has("components") ? allowedValues(issueTypeFields.path("components")) : null));
+        }
+        return new JiraMetadata(Collections.unmodifiableMap(fieldIdsByName),
+                Collections.unmodifiableMap(fieldNamesById),
+                project.isMissingNode() ? null : project.path("id").asText(),
+                Collections.unmodifiableMap(issueTypes));
+    }
+
+    /**
+     * @return ID of the project, or null when it does not exist or issues cannot be created in it
+     */
+    public String projectId() {
+        return projectId;
+    }
+
+    /**
+     * @return ID of issue type of given name, or null when the project does not have it
+     */
+    public String issueTypeId(final String issueType) {
+        final IssueType type = issueTypes.get(normalize(issueType));
+        return type == null ? null : type.id();
+    }
+
+    /**
+     * @return ID of priority, or null when it cannot be set on the create screen of given issue type
+     */
+    public String priorityId(final String issueType, final String priority) {
+        final IssueType type = issueTypes.get(normalize(issueType));
+        return type == null || type.priorities() == null ? null : type.priorities().get(normalize(priority));
+    }
+
+    /**
+     * @return ID of component, or null when it cannot be set on the create screen of given issue type
+     */
+    public String componentId(final String issueType, final String component) {
+        final IssueType type = issueTypes.get(normalize(issueType));
+        return type == null || type.components() == null ? null : type.components().get(normalize(component));
+    }
+
+    /**
+     * @return ID of field given by its ID or name, or null when there is no such field
+     */
+    public String fieldId(final String field) {
+        if (fieldNamesById.containsKey(field.trim())) {
+            return field.trim();
+        }
+        return fieldIdsByName.get(normalize(field));
+    }
+
+    /**
+     * @return name of field of given ID, or null when there is no such field
+     */
+    public String fieldName(final String fieldId) {
+        return fieldNamesById.get(fieldId);
+    }
+
+    /**
+     * Reports configured names which are not known to Jira, instead of having Jira reject every issue.
+     */
+    public void validate(final JiraEventNotificationConfig config, final ValidationResult validation) {
+        if (projectId == null) {
+            validation.addError(JiraEventNotificationConfig.FIELD_PROJECT_KEY, "Jira project " + config.projectKey()
+                    + " does not exist or the Jira user cannot create issues in it.");
+            return;
+        }
+        final IssueType issueType = issueTypes.get(normalize(config.issueType()));
+        if (issueType == null) {
+            validation.addError(JiraEventNotificationConfig.FIELD_ISSUE_TYPE, "Jira project " + config.projectKey()
+                    + " does not have issue type " + config.issueType() + ".");
+            return;
+        }
+        if (!Strings.isNullOrEmpty(config.issuePriority())
+                && priorityId(config.issueType(), config.issuePriority()) == null) {
+            validation.addError(JiraEventNotificationConfig.FIELD_ISSUE_PRIORITY, "Priority " + config.issuePriority()
+                    + " does not exist or cannot be set when creating " + config.issueType() + ".");
+        }
+        if (!Strings.isNullOrEmpty(config.issueComponents())) {
+            for (final String component : config.issueComponents().split(";")) {
+                if (componentId(config.issueType(), component) == null) {
+                    validation.addError(JiraEventNotificationConfig.FIELD_ISSUE_COMPONENTS, "Component " + component
+                            + " does not exist or cannot be set when creating " + config.issueType() + ".");
+                }
+            }
+        }
+        if (!Strings.isNullOrEmpty(config.issueCustomFields())) {
+            for (final String customField : config.issueCustomFields().split(",")) {
+                final String field = customField.split("=", 2)[0];
+                if (fieldId(field) == null) {
+                    validation.addError(JiraEventNotificationConfig.FIELD_ISSUE_CUSTOM_FIELDS, "Jira field " + field
+                            + " does not exist.");
+                }
+            }
+        }
+        final String graylogHashField = config.searchGraylogHashField();
+        if (!Strings.isNullOrEmpty(graylogHashField)) {
+            final String field = graylogHashField.contains("=") ? graylogHashField.split("=", 2)[0] : graylogHashField;
+            if (fieldId(field) == null) {
+                validation.addError(JiraEventNotificationConfig.FIELD_SEARCH_GRAYLOG_HASH_FIELD, "Jira field " + field
+                        + " does not exist.");
+            }
+        }
+    }
+
+    private static Map<String, String> allowedValues(final JsonNode field) {
+        final Map<String, String> ids = new HashMap<>();
+        for (final JsonNode value : field.path("allowedValues")) {
+            ids.put(normalize(value.path("name").asText()), value.path("id").asText());
+        }
+        return Collections.unmodifiableMap(ids);
+    }
+
+    private static String normalize(final String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    record IssueType(String id, Map<String, String> priorities, Map<String, String> components) {
+    }
+}
@@ -0,0 +1,188 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.graylog2.plugin.rest.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Keeps {@link JiraMetadata} per Jira instance and project, loaded when a notification first needs it and refreshed
+ * periodically, so that issues are created with IDs instead of having Jira resolve the names every time.
+ * When metadata cannot be loaded, issues are created with the configured names. Metadata is refreshed with the
+ * config last used for its project, so that edited credentials are picked up.
+ */
+@Singleton
+public class JiraMetadataCache extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraMetadataCache.class);
+
+    private final boolean enabled;
+    private final long refreshIntervalMillis;
+    private final JiraHttpClientRegistry clientRegistry;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("jira-metadata-refresh-%d").setDaemon(true).build());
+
+    @Inject
+    public JiraMetadataCache(@Named(JiraPluginConfiguration.METADATA_CACHE_ENABLED) final boolean enabled,
+                             @Named(JiraPluginConfiguration.METADATA_REFRESH_INTERVAL) final Duration refreshInterval,
+                             final JiraHttpClientRegistry clientRegistry) {
+        this.enabled = enabled;
+        this.refreshIntervalMillis = refreshInterval.toMilliseconds();
+        this.clientRegistry = clientRegistry;
+    }
+
+    /**
+     * Checks the names of given config against freshly loaded metadata, e.g. when the notification is tested.
+     * Nothing is reported when the cache is disabled or Jira cannot be reached.
+     *
+     * @throws JiraClientException permanent one, listing the names Jira does not know
+     */
+    public void check(final JiraEventNotificationConfig config) {
+        if (!enabled) {
+            return;
+        }
+        final JiraMetadata metadata = load(config);
+        if (metadata == null) {
+            return;
+        }
+        final ValidationResult validation = new ValidationResult();
+        metadata.validate(config, validation);
+        if (validation.failed()) {
+            throw new JiraClientException("Jira project " + config.projectKey() + " does not match the notification: "
+                    + validation.getErrors().values().stream().flatMap(Collection::stream)
+                    .collect(Collectors.joining(" ")));
+        }
+    }
+
+    /**
+     * @return metadata of the instance and project of given config, or null when the cache is disabled or the
+     * metadata could not be loaded
+     */
+    public JiraMetadata get(final JiraEventNotificationConfig config) {
+        if (!enabled) {
+            return null;
+        }
+        // the config of the entry is replaced, a refresh must not log in with credentials edited since
+        final Entry entry = entries.computeIfPresent(new Key(config.jiraURL(), config.projectKey()),
+                (key, current) -> current.config().equals(config) ? current : new Entry(config, current.metadata()));
+        if (entry != null) {
+            return entry.metadata();
+        }
+        return load(config);
+    }
+
+    @Override
+    protected void startUp() {
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void shutDown() {
+        scheduler.shutdownNow();
+        entries.clear();
+    }
+
+    private JiraMetadata load(final JiraEventNotificationConfig config) {
+        final Key key = new Key(config.jiraURL(), config.projectKey());
+        final JiraMetadata metadata;
+        try {
+            metadata = fetch(config, new HashMap<>());
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to load metadata of Jira project {} from {}, configured names are sent",
+                    config.projectKey(), config.jiraURL(), e);
+            // failed loads are tried again on refresh
+            entries.putIfAbsent(key, new Entry(config, null));
+            return null;
+        }
+        entries.put(key, new Entry(config, metadata));
+        return metadata;
+    }
+
+    void refresh() {
+        // fields are the same for all projects of an instance
+        final Map<String, JsonNode> fieldsByInstance = new HashMap<>();
+        entries.forEach((key, entry) -> {
+            try {
+                final JiraMetadata metadata = fetch(entry.config(), fieldsByInstance);
+                entries.computeIfPresent(key, (k, current) -> new Entry(current.config(), metadata));
+            } catch (final RuntimeException e) {
+                // previous metadata is kept until the next refresh
+                LOG.warn("Failed to refresh metadata of Jira project {} from {}", key.projectKey(), key.jiraURL(), e);
+            }
+        });
+    }
+
+    private JiraMetadata fetch(final JiraEventNotificationConfig config, final Map<String, JsonNode> fieldsByInstance) {
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config);
+        // the password of a shared session is kept, it is set by notifications sending issues
+        final OkHttpClient client = clientRegistry.clientFor(config, false);
+        JsonNode fields = fieldsByInstance.get(config.jiraURL());
+        if (fields == null) {
+            fields = get(client, compiled, compiled.fieldsURL(), "fields");
+            fieldsByInstance.put(config.jiraURL(), fields);
+        }
+        final JsonNode createMeta = get(client, compiled, compiled.createMetaURL().newBuilder()
+                .addQueryParameter("projectKeys", config.projectKey())
+                .addQueryParameter("expand", "projects.issuetypes.fields")
+                .build(), "create metadata");
+        return JiraMetadata.parse(fields, createMeta);
+    }
+
+    private JsonNode get(final OkHttpClient client, final JiraCompiledConfig compiled, final HttpUrl url,
+                         final String operation) {
+        final Request req = new Request.Builder()
+                .url(url)
+                .headers(compiled.authHeaders())
+                .get()
+                .build();
+        try (final Response res = client.newCall(req).execute()) {
+            if (!res.isSuccessful() || res.body() == null) {
+                throw JiraClientException.forStatus("Jira (" + operation + ") returned client error. HTTP Status="
+                        + res.code() + ", response=" + JiraResponseReader.errorBody(res.body()), res.code(),
+                        res.header("Retry-After"));
+            }
+            return JiraResponseReader.tree(res.body().byteStream());
+        } catch (final JacksonException ex) {
+            throw new JiraClientException("Failed to read Jira (" + operation + ") response body.", ex);
+        } catch (final IOException ex) {
+            throw JiraClientException.forIOException("Failed to send GET request to Jira (" + operation + ").", ex);
+        }
+    }
+
+    private record Key(String jiraURL, String projectKey) {
+    }
+
+    /**
+     * Config the metadata was loaded with, used to refresh it.
+     */
+    private record Entry(JiraEventNotificationConfig config, JiraMetadata metadata) {
+    }
+}
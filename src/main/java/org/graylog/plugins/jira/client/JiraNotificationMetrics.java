@@ -0,0 +1,116 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ObjectArrays;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Metrics of Jira calls and rendering per notification. The notification ID is part of the metric name, e.g.
+ * {@code org.graylog.plugins.jira.client.JiraNotificationMetrics.<notification id>.issue-create}, so slow configs
+ * can be found in the metrics of the node. Graylog does not tell when a notification is deleted, so metrics of a
+ * notification not used for {@link #EXPIRE_AFTER} are removed.
+ */
+@Singleton
+public class JiraNotificationMetrics {
+
+    static final Duration EXPIRE_AFTER = Duration.ofDays(1);
+    static final Duration SWEEP_INTERVAL = Duration.ofHours(1);
+
+    private final MetricRegistry metricRegistry;
+    private final Clock clock;
+    private final ConcurrentMap<String, Notification> notifications = new ConcurrentHashMap<>();
+    private volatile Instant nextSweep;
+
+    @Inject
+    public JiraNotificationMetrics(final MetricRegistry metricRegistry) {
+        this(metricRegistry, Clock.systemUTC());
+    }
+
+    JiraNotificationMetrics(final MetricRegistry metricRegistry, final Clock clock) {
+        this.metricRegistry = metricRegistry;
+        this.clock = clock;
+        this.nextSweep = clock.instant().plus(SWEEP_INTERVAL);
+    }
+
+    public Notification forNotification(final String notificationId) {
+        final Instant now = clock.instant();
+        if (now.isAfter(nextSweep)) {
+            nextSweep = now.plus(SWEEP_INTERVAL);
+            removeUnused(now.minus(EXPIRE_AFTER));
+        }
+        return notifications.compute(notificationId, (id, notification) -> {
+            final Notification used = notification == null ? new Notification(id) : notification;
+            used.lastUsed = now;
+            return used;
+        });
+    }
+
+    /**
+     * Removes notifications not used since given time along with their metrics. Both happen within the map's
+     * compute, so a notification used meanwhile does not end up with metrics missing from the registry.
+     */
+    private void removeUnused(final Instant usedBefore) {
+        for (final String notificationId : notifications.keySet()) {
+            notifications.computeIfPresent(notificationId, (id, notification) -> {
+                if (!notification.lastUsed.isBefore(usedBefore)) {
+                    return notification;
+                }
+                final String prefix = notification.name() + ".";
+                metricRegistry.removeMatching((name, metric) -> name.startsWith(prefix));
+                return null;
+            });
+        }
+    }
+
+    public final class Notification {
+        private final String notificationId;
+        final Timer render;
+        final Timer hash;
+        final Timer search;
+        final Timer create;
+        final Timer comment;
+        final Timer update;
+        final Counter duplicates;
+        final Counter created;
+        final Counter comments;
+        final Histogram payloadBytes;
+        private volatile Instant lastUsed;
+
+        private Notification(final String notificationId) {
+            this.notificationId = notificationId;
+            this.render = metricRegistry.timer(name("render"));
+            this.hash = metricRegistry.timer(name("hash"));
+            this.search = metricRegistry.timer(name("issue-search"));
+            this.create = metricRegistry.timer(name("issue-create"));
+            this.comment = metricRegistry.timer(name("issue-comment"));
+            this.update = metricRegistry.timer(name("issue-update"));
+            this.duplicates = metricRegistry.counter(name("duplicates"));
+            this.created = metricRegistry.counter(name("created"));
+            this.comments = metricRegistry.counter(name("comments"));
+            this.payloadBytes = metricRegistry.histogram(name("payload-bytes"));
+        }
+
+        /**
+         * Counts failed call by its cause: {@code 4xx} or {@code 5xx} status class, or {@code io} without response.
+         */
+        void failure(final int statusCode) {
+            final String cause = statusCode > 0 ? statusCode / 100 + "xx" : "io";
+            metricRegistry.counter(name("failures", cause)).inc();
+        }
+
+        private String name(final String... names) {
+            return MetricRegistry.name(JiraNotificationMetrics.class, ObjectArrays.concat(notificationId, names));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.graylog.plugins.jira.client;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Request was not sent because no rate limit permit of the Jira instance was available within the maximum wait.
+ */
+public class JiraRateLimitException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = -6021833614751409922L;
+
+    public JiraRateLimitException(final String message) {
+        super(message);
+    }
+}
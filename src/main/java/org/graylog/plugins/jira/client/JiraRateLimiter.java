@@ -0,0 +1,114 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.github.joschi.jadconfig.util.Duration;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Token bucket per Jira instance (scheme, host and port), shared by all notifications sending to it.
+ * Requests wait for a permit up to the maximum wait, otherwise they fail with {@link JiraRateLimitException}.
+ */
+@Singleton
+public class JiraRateLimiter implements Interceptor {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    @Inject
+    public JiraRateLimiter(@Named(JiraPluginConfiguration.RATE_LIMIT) final int permitsPerSecond,
+                           @Named(JiraPluginConfiguration.RATE_LIMIT_BURST) final int burst,
+                           @Named(JiraPluginConfiguration.RATE_LIMIT_MAX_WAIT) final Duration maxWait,
+                           final MetricRegistry metricRegistry) {
+        this(permitsPerSecond, burst, maxWait, metricRegistry, System::nanoTime);
+    }
+
+    JiraRateLimiter(final int permitsPerSecond, final int burst, final Duration maxWait,
+                    final MetricRegistry metricRegistry, final LongSupplier nanoTime) {
+        this.permitsPerNano = permitsPerSecond / 1e9;
+        this.burst = Math.max(1, burst);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWait.toMilliseconds());
+        this.nanoTime = nanoTime;
+        this.waitTimer = metricRegistry.timer(MetricRegistry.name(JiraRateLimiter.class, "wait"));
+        this.rejected = metricRegistry.counter(MetricRegistry.name(JiraRateLimiter.class, "rejected"));
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        if (permitsPerNano > 0) {
+            acquire(chain.request().url());
+        }
+        return chain.proceed(chain.request());
+    }
+
+    /**
+     * @return nanoseconds the caller has to wait before sending or -1 when that is longer than maximum wait
+     */
+    long reserve(final HttpUrl url) {
+        final Bucket bucket = buckets.computeIfAbsent(url.scheme() + "://" + url.host() + ":" + url.port(),
+                key -> new Bucket(nanoTime.getAsLong()));
+        return bucket.reserve(nanoTime.getAsLong());
+    }
+
+    private void acquire(final HttpUrl url) throws IOException {
+        final long waitNanos = reserve(url);
+        if (waitNanos < 0) {
+            rejected.inc();
+            throw new JiraRateLimitException("Jira rate limit exceeded for " + url.host() + ", no permit within "
+                    + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+        }
+        waitTimer.update(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for Jira rate limit");
+            }
+        }
+    }
+
+    /**
+     * Tokens may go negative, that is how permits promised to already waiting callers are accounted.
+     */
+    private final class Bucket {
+        private double tokens = burst;
+        private long lastRefill;
+
+        Bucket(final long now) {
+            this.lastRefill = now;
+        }
+
+        synchronized long reserve(final long now) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            final long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            tokens -= 1;
+            return waitNanos;
+        }
+    }
+}
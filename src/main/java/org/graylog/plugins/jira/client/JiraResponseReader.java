@@ -0,0 +1,117 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Reads Jira responses straight from the response stream. Only the values needed are parsed, reading stops as soon
+ * as they are found, and error bodies are read up to {@link #MAX_ERROR_BODY_BYTES} only.
+ */
+final class JiraResponseReader {
+
+    /**
+     * Shared by all Jira calls of the plugin, it is thread safe and its serializers are cached once built.
+     */
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // enough for Jira's error messages, proxies may answer with whole HTML pages
+    static final int MAX_ERROR_BODY_BYTES = 8 * 1024;
+
+    private JiraResponseReader() {
+    }
+
+    /**
+     * Reads value of a successful response.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(InputStream in) throws IOException;
+    }
+
+    /**
+     * @return top level {@code id}, e.g. of created issue, or null
+     */
+    static String id(final InputStream in) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT && moveToField(parser, "id")) {
+                return parser.getValueAsString();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code id} of the first of search result {@code issues}, or null when nothing was found
+     */
+    static String firstIssueId(final InputStream in) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "issues")
+                    && parser.currentToken() == JsonToken.START_ARRAY
+                    && parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "id")) {
+                return parser.getValueAsString();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return value of given issue field, or missing node when the issue does not have it
+     */
+    static JsonNode issueField(final InputStream in, final String fieldId) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "fields")
+                    && parser.currentToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, fieldId)) {
+                final JsonNode value = OBJECT_MAPPER.readTree(parser);
+                return value == null ? OBJECT_MAPPER.missingNode() : value;
+            }
+            return OBJECT_MAPPER.missingNode();
+        }
+    }
+
+    static JsonNode tree(final InputStream in) throws IOException {
+        return OBJECT_MAPPER.readTree(in);
+    }
+
+    /**
+     * @return body of failed response for error messages, cut after {@link #MAX_ERROR_BODY_BYTES}
+     */
+    static String errorBody(final ResponseBody body) throws IOException {
+        if (body == null) {
+            return "";
+        }
+        try (InputStream in = body.byteStream()) {
+            final byte[] bytes = in.readNBytes(MAX_ERROR_BODY_BYTES);
+            final String text = new String(bytes, StandardCharsets.UTF_8);
+            return in.read() == -1 ? text : text + "... (truncated)";
+        }
+    }
+
+    /**
+     * Moves parser from the start of an object to the value of given field, skipping the values of other fields.
+     *
+     * @return false when the object does not have the field, the parser is at its end then
+     */
+    private static boolean moveToField(final JsonParser parser, final String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            if (name.equals(fieldName)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
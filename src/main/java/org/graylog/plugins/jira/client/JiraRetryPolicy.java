@@ -0,0 +1,107 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+/**
+ * Repeats Jira calls failing with transient errors, waiting with jittered exponential backoff in between,
+ * or as long as Jira asked for in Retry-After. Gives up after the maximum number of attempts or when the next
+ * attempt would end after the maximum elapsed time, leaving further retries to Graylog. Requests which are not
+ * idempotent are repeated only when they were not carried out by Jira.
+ */
+@Singleton
+public class JiraRetryPolicy {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraRetryPolicy.class);
+
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long maxElapsedMillis;
+    private final Sleeper sleeper;
+
+    @Inject
+    public JiraRetryPolicy(@Named(JiraPluginConfiguration.RETRY_MAX_ATTEMPTS) final int maxAttempts,
+                           @Named(JiraPluginConfiguration.RETRY_INITIAL_BACKOFF) final Duration initialBackoff,
+                           @Named(JiraPluginConfiguration.RETRY_MAX_BACKOFF) final Duration maxBackoff,
+                           @Named(JiraPluginConfiguration.RETRY_MAX_ELAPSED) final Duration maxElapsed) {
+        this(maxAttempts, initialBackoff, maxBackoff, maxElapsed, Thread::sleep);
+    }
+
+    JiraRetryPolicy(final int maxAttempts, final Duration initialBackoff, final Duration maxBackoff,
+                    final Duration maxElapsed, final Sleeper sleeper) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMilliseconds();
+        this.maxBackoffMillis = maxBackoff.toMilliseconds();
+        this.maxElapsedMillis = maxElapsed.toMilliseconds();
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Calls idempotent request.
+     */
+    public <T> T call(final String operation, final Supplier<T> call) {
+        return call(operation, call, true);
+    }
+
+    /**
+     * Calls request which must not be carried out twice, e.g. a POST creating something. Failures which may have
+     * been processed by Jira are thrown without retrying.
+     */
+    public <T> T callOnce(final String operation, final Supplier<T> call) {
+        return call(operation, call, false);
+    }
+
+    private <T> T call(final String operation, final Supplier<T> call, final boolean idempotent) {
+        final long deadline = System.nanoTime() + maxElapsedMillis * 1_000_000;
+        int attempt = 1;
+        while (true) {
+            try {
+                return call.get();
+            } catch (final JiraClientException e) {
+                if (!e.isTransient() || (!idempotent && e.isMaybeProcessed()) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                final long delay = e.getRetryAfterMillis() >= 0 ? e.getRetryAfterMillis() : backoff(attempt);
+                if (System.nanoTime() + delay * 1_000_000 - deadline > 0) {
+                    throw e;
+                }
+                LOG.debug("Jira ({}) failed with transient error, attempt {} of {} in {} ms: {}",
+                        operation, attempt + 1, maxAttempts, delay, e.getMessage());
+                sleep(delay, e);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Full jitter, random delay up to the exponentially growing cap.
+     */
+    private long backoff(final int attempt) {
+        final long cap = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleep(final long millis, final JiraClientException failure) {
+        try {
+            sleeper.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
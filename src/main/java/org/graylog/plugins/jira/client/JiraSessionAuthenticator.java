@@ -0,0 +1,148 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.core.JacksonException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Logs in to Jira once and authenticates requests by the session cookie instead of sending the password with every
+ * request, which costs Jira a directory lookup each time when users come from LDAP. Keeps the cookies of one Jira
+ * user on one Jira instance. When the session expired, the user is logged in again and the request is repeated.
+ */
+class JiraSessionAuthenticator implements Interceptor, CookieJar {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraSessionAuthenticator.class);
+    // set by Jira Server to the user a request was served to
+    private static final String HEADER_USERNAME = "X-AUSERNAME";
+
+    private final HttpUrl sessionURL;
+    private final String username;
+    private final List<Cookie> cookies = new ArrayList<>();
+    // a lock instead of synchronized, as waiting for the login would pin the carrier of a virtual thread
+    private final ReentrantLock loginLock = new ReentrantLock();
+    private volatile String password;
+    // counts logins, so that requests failing with the same expired session log in once
+    private volatile int session;
+
+    JiraSessionAuthenticator(final HttpUrl sessionURL, final String username, final String password) {
+        this.sessionURL = sessionURL;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Password edited in a notification is used with the next login.
+     */
+    void password(final String newPassword) {
+        this.password = newPassword;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        int current = session;
+        if (current == 0) {
+            final Response failedLogin = login(chain, current);
+            if (failedLogin != null) {
+                return failedLogin;
+            }
+            current = session;
+        }
+        final Response res = chain.proceed(chain.request());
+        if (!expired(res)) {
+            return res;
+        }
+        res.close();
+        LOG.debug("Jira session of user {} expired, logging in again", username);
+        final Response failedLogin = login(chain, current);
+        if (failedLogin != null) {
+            return failedLogin;
+        }
+        return chain.proceed(chain.request());
+    }
+
+    /**
+     * Logs in unless another request did already since given session.
+     *
+     * @return response of failed login, which is returned to the caller, or null when logged in
+     */
+    private Response login(final Chain chain, final int expiredSession) throws IOException {
+        loginLock.lock();
+        try {
+            if (session != expiredSession) {
+                return null;
+            }
+            clear();
+            final Request req = new Request.Builder()
+                    .url(sessionURL)
+                    .post(loginBody())
+                    .build();
+            final Response res = chain.proceed(req);
+            if (!res.isSuccessful()) {
+                LOG.warn("Failed to log in to Jira {} as user {}. HTTP Status={}", sessionURL, username, res.code());
+                return res;
+            }
+            res.close();
+            session++;
+            return null;
+        } finally {
+            loginLock.unlock();
+        }
+    }
+
+    private RequestBody loginBody() {
+        try {
+            return RequestBody.create(JiraResponseReader.OBJECT_MAPPER.writeValueAsString(
+                    Map.of("username", username, "password", password)), JiraIssueSerializer.JSON);
+        } catch (final JacksonException ex) {
+            throw new IllegalStateException("Failed to build Jira login payload as JSON format.", ex);
+        }
+    }
+
+    /**
+     * Jira answers 401 to an expired session, or serves the request anonymously when anonymous access is allowed.
+     */
+    private static boolean expired(final Response res) {
+        return res.code() == 401 || "anonymous".equals(res.header(HEADER_USERNAME));
+    }
+
+    @Override
+    public List<Cookie> loadForRequest(final HttpUrl url) {
+        final long now = System.currentTimeMillis();
+        synchronized (cookies) {
+            cookies.removeIf(cookie -> cookie.expiresAt() < now);
+            return cookies.stream().filter(cookie -> cookie.matches(url)).toList();
+        }
+    }
+
+    @Override
+    public void saveFromResponse(final HttpUrl url, final List<Cookie> received) {
+        synchronized (cookies) {
+            for (final Cookie cookie : received) {
+                cookies.removeIf(existing -> existing.name().equals(cookie.name())
+                        && existing.domain().equals(cookie.domain()) && existing.path().equals(cookie.path()));
+                cookies.add(cookie);
+            }
+        }
+    }
+
+    private void clear() {
+        synchronized (cookies) {
+            cookies.clear();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.graylog.plugins.jira.client;
+
+import com.floreysoft.jmte.Engine;
+import com.floreysoft.jmte.ProcessListener;
+import com.floreysoft.jmte.TemplateContext;
+import com.floreysoft.jmte.token.Token;
+import com.floreysoft.jmte.template.Template;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Renders summary, description and comment templates. Each template text is parsed once and the parsed
+ * template is reused for every event, so a changed config simply brings a new cache entry and the old one expires.
+ */
+@Singleton
+public class JiraTemplateRenderer {
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r\\n|\\r");
+    private static final int MAXIMUM_TEMPLATES = 1000;
+    private static final String BACKLOG = "backlog";
+    // room kept for the omitted messages line
+    private static final int MARKER_RESERVE = 64;
+    private static final String TRUNCATED = "\n_(truncated)_";
+
+    private final LoadingCache<String, Template> templates;
+
+    @Inject
+    public JiraTemplateRenderer(final Engine engine) {
+        this.templates = CacheBuilder.newBuilder()
+                .maximumSize(MAXIMUM_TEMPLATES)
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build(CacheLoader.from(template -> engine.getTemplate(normalizeLineBreaks(template))));
+    }
+
+    /**
+     * @return rendered template with line breaks normalized to {@code \n}
+     */
+    public String render(final String template, final Map<String, Object> model) {
+        final String output = templates.getUnchecked(template).transform(model, Locale.getDefault());
+        // template text is normalized already, only values from the model can bring other line breaks
+        return output.indexOf('\r') < 0 ? output : normalizeLineBreaks(output);
+    }
+
+    /**
+     * Renders template with backlog messages added only while the output stays within given number of characters.
+     * The output length is checked before each message, so the rendering stops early rather than being trimmed
+     * afterwards, and the messages left out are counted in a closing line. Output which is still too long, e.g.
+     * because of a single huge message, is cut as a last resort.
+     *
+     * @param maxLength maximum length of the output, 0 for no limit
+     */
+    public String render(final String template, final Map<String, Object> model, final int maxLength) {
+        if (maxLength <= 0) {
+            return render(template, model);
+        }
+        String output;
+        if (model.get(BACKLOG) instanceof List<?> backlog && !backlog.isEmpty()) {
+            final BacklogBudget budget = new BacklogBudget(backlog, maxLength - MARKER_RESERVE);
+            output = templates.getUnchecked(template)
+                    .transform(withValue(model, BACKLOG, budget), Locale.getDefault(), budget);
+            if (budget.omitted > 0) {
+                output = output + "\n_" + budget.omitted + " more messages omitted_";
+            }
+        } else {
+            output = templates.getUnchecked(template).transform(model, Locale.getDefault());
+        }
+        if (output.indexOf('\r') >= 0) {
+            output = normalizeLineBreaks(output);
+        }
+        if (output.length() > maxLength) {
+            output = cut(output, maxLength - TRUNCATED.length()) + TRUNCATED;
+        }
+        return output;
+    }
+
+    /**
+     * @return text cut to at most given length, not splitting a surrogate pair
+     */
+    private static String cut(final String text, final int length) {
+        int end = Math.max(0, length);
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * @return view of the model with one entry replaced, which leaves lazily converted entries of the model alone
+     */
+    static Map<String, Object> withValue(final Map<String, Object> model, final String key, final Object value) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put(key, value);
+        return withValues(model, values);
+    }
+
+    /**
+     * @param values entries replacing those of the model, entries put into the view are added to them
+     * @return view of the model with given entries replaced, which leaves lazily converted entries of the model alone
+     */
+    public static Map<String, Object> withValues(final Map<String, Object> model, final Map<String, Object> values) {
+        return new AbstractMap<>() {
+            @Override
+            public Object get(final Object k) {
+                return values.containsKey(k) ? values.get(k) : model.get(k);
+            }
+
+            @Override
+            public boolean containsKey(final Object k) {
+                return values.containsKey(k) || model.containsKey(k);
+            }
+
+            @Override
+            public Object put(final String k, final Object v) {
+                final Object previous = get(k);
+                values.put(k, v);
+                return previous;
+            }
+
+            @Override
+            public Set<Entry<String, Object>> entrySet() {
+                final Map<String, Object> copy = new HashMap<>(model);
+                copy.putAll(values);
+                return copy.entrySet();
+            }
+        };
+    }
+
+    private static String normalizeLineBreaks(final String text) {
+        return LINE_BREAK.matcher(text).replaceAll("\n");
+    }
+
+    /**
+     * Backlog list whose iteration ends once the template output could not fit another message. The engine
+     * reports each processed token with its context, which gives access to the output rendered so far.
+     */
+    private static final class BacklogBudget extends AbstractList<Object> implements ProcessListener {
+        private final List<?> backlog;
+        private final int limit;
+        private StringBuilder output;
+        private int omitted;
+
+        BacklogBudget(final List<?> backlog, final int limit) {
+            this.backlog = backlog;
+            this.limit = limit;
+        }
+
+        @Override
+        public void log(final TemplateContext context, final Token token, final Action action) {
+            output = context.output;
+        }
+
+        @Override
+        public Object get(final int index) {
+            return backlog.get(index);
+        }
+
+        @Override
+        public int size() {
+            return backlog.size();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            // measured when the foreach starts, before its first message is rendered; no output logged yet is none
+            final int startLength = output == null ? 0 : output.length();
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next >= backlog.size()) {
+                        return false;
+                    }
+                    if (output == null) {
+                        return true;
+                    }
+                    // expect the next message to take as much as the previous ones on average
+                    final int average = next == 0 ? 0 : (output.length() - startLength) / next;
+                    if (output.length() + average > limit) {
+                        omitted = Math.max(omitted, backlog.size() - next);
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public Object next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return backlog.get(next++);
+                }
+            };
+        }
+    }
+}
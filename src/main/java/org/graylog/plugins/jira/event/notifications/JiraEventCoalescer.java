@@ -0,0 +1,223 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.graylog.plugins.jira.client.JiraClient;
+import org.graylog.plugins.jira.client.JiraClientException;
+import org.graylog.plugins.jira.client.JiraIssue;
+import org.graylog.plugins.jira.client.JiraTemplateRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Holds events with the same summary, event key and event fields for the notification's coalesce window and then
+ * sends them to Jira as a single issue create or duplicate comment, carrying the occurrence count and a merged backlog
+ * sample. Only the summary is rendered per event, the description is rendered once the window is sent.
+ * The events were reported to Graylog as sent already, so a window failing with a transient error is opened again,
+ * merged with one opened meanwhile, and sent after another coalesce window.
+ */
+@Singleton
+public class JiraEventCoalescer extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraEventCoalescer.class);
+
+    static final int MAX_BACKLOG_SAMPLE = 50;
+    static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    private final JiraClient jiraClient;
+    private final ConcurrentMap<Key, Window> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("jira-coalescer-%d").setDaemon(true).build());
+
+    @Inject
+    public JiraEventCoalescer(final JiraClient jiraClient) {
+        this.jiraClient = jiraClient;
+    }
+
+    public void add(final String notificationId, final JiraEventNotificationConfig config,
+                    final Map<String, Object> model, final Instant occurredAt) {
+        final Object event = model.get("event");
+        final Key key = new Key(notificationId, jiraClient.prepareSummary(notificationId, config, model),
+                eventValue(event, "key"), eventValue(event, "fields"));
+
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                opened.set(true);
+                return new Window(config, model, occurredAt);
+            }
+            window.add(model, occurredAt);
+            return window;
+        });
+        if (opened.get()) {
+            scheduler.schedule(() -> flush(key), config.coalesceWindowSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    protected void startUp() {
+        // windows are opened by incoming events
+    }
+
+    @Override
+    protected void shutDown() {
+        scheduler.shutdownNow();
+        LOG.debug("Flushing {} open coalesce window(s)", windows.size());
+        flushAll();
+    }
+
+    void flushAll() {
+        windows.keySet().forEach(this::flush);
+    }
+
+    private void flush(final Key key) {
+        final Window window = windows.remove(key);
+        if (window == null) {
+            return;
+        }
+        try {
+            final Map<String, Object> model = window.toModel();
+            final JiraIssue jiraIssue = jiraClient.prepareIssue(key.notificationId(), window.config, model);
+            if (window.count > 1 && !Strings.isNullOrEmpty(window.config.searchGraylogHashField())) {
+                // occurrences and merged backlog change the description, keep the hash of the first event alone
+                jiraIssue.setGraylogHash(jiraClient.prepareIssue(key.notificationId(), window.config, window.model)
+                        .createGraylogHash());
+            }
+            jiraClient.createIssue(key.notificationId(), window.config, jiraIssue, model, window.firstOccurrence);
+        } catch (final JiraClientException e) {
+            if (e.isTransient() && window.attempts < MAX_FLUSH_ATTEMPTS && reopen(key, window)) {
+                LOG.warn("Failed to send {} coalesced event(s) of notification {} to Jira, trying again in {} s: {}",
+                        window.count, key.notificationId(), window.config.coalesceWindowSeconds(), e.getMessage());
+                return;
+            }
+            LOG.error("Failed to send {} coalesced event(s) of notification {} to Jira",
+                    window.count, key.notificationId(), e);
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to send {} coalesced event(s) of notification {} to Jira",
+                    window.count, key.notificationId(), e);
+        }
+    }
+
+    /**
+     * Puts failed window back, taking over the events of a window opened meanwhile.
+     *
+     * @return false when the window could not be reopened on shutdown
+     */
+    private boolean reopen(final Key key, final Window failed) {
+        if (scheduler.isShutdown()) {
+            return false;
+        }
+        failed.attempts++;
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                opened.set(true);
+            } else {
+                failed.merge(window);
+            }
+            return failed;
+        });
+        if (opened.get()) {
+            try {
+                scheduler.schedule(() -> flush(key), failed.config.coalesceWindowSeconds(), TimeUnit.SECONDS);
+            } catch (final RejectedExecutionException e) {
+                // shut down meanwhile, the window is flushed by shutdown
+            }
+        }
+        return true;
+    }
+
+    private static Object eventValue(final Object event, final String name) {
+        return event instanceof Map<?, ?> values ? values.get(name) : null;
+    }
+
+    private record Key(String notificationId, String summary, Object eventKey, Object eventFields) {
+    }
+
+    /**
+     * Mutated only inside {@link ConcurrentMap#compute}, read after it was removed from the map.
+     */
+    private static class Window {
+        private final JiraEventNotificationConfig config;
+        private final Map<String, Object> model;
+        private final List<Object> backlog = new ArrayList<>();
+        private final Instant firstOccurrence;
+        private Instant lastOccurrence;
+        private int count;
+        private int attempts;
+
+        Window(final JiraEventNotificationConfig config, final Map<String, Object> model, final Instant occurredAt) {
+            this.config = config;
+            this.model = model;
+            this.firstOccurrence = occurredAt;
+            this.lastOccurrence = occurredAt;
+            this.count = 1;
+            addBacklog(model);
+        }
+
+        void add(final Map<String, Object> eventModel, final Instant occurredAt) {
+            count++;
+            if (occurredAt.isAfter(lastOccurrence)) {
+                lastOccurrence = occurredAt;
+            }
+            addBacklog(eventModel);
+        }
+
+        /**
+         * Takes over the events of a window opened after this one.
+         */
+        void merge(final Window other) {
+            count += other.count;
+            if (other.lastOccurrence.isAfter(lastOccurrence)) {
+                lastOccurrence = other.lastOccurrence;
+            }
+            for (final Object message : other.backlog) {
+                if (backlog.size() >= MAX_BACKLOG_SAMPLE) {
+                    return;
+                }
+                backlog.add(message);
+            }
+        }
+
+        /**
+         * @return view of the model of the first event, which is converted lazily
+         */
+        Map<String, Object> toModel() {
+            final Map<String, Object> values = new HashMap<>();
+            values.put("backlog", backlog);
+            values.put(JiraClient.MODEL_OCCURRENCE_COUNT, count);
+            values.put(JiraClient.MODEL_FIRST_OCCURRENCE, firstOccurrence.toString());
+            values.put(JiraClient.MODEL_LAST_OCCURRENCE, lastOccurrence.toString());
+            return JiraTemplateRenderer.withValues(model, values);
+        }
+
+        private void addBacklog(final Map<String, Object> eventModel) {
+            if (eventModel.get("backlog") instanceof List<?> messages) {
+                for (final Object message : messages) {
+                    if (backlog.size() >= MAX_BACKLOG_SAMPLE) {
+                        return;
+                    }
+                    backlog.add(message);
+                }
+            }
+        }
+    }
+}
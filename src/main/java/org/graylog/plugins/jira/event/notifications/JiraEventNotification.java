@@ -6,18 +6,16 @@ import com.google.common.collect.ImmutableList;
 import org.graylog.events.notifications.EventNotification;
 import org.graylog.events.notifications.EventNotificationContext;
 import org.graylog.events.notifications.EventNotificationException;
-import org.graylog.events.notifications.EventNotificationModelData;
 import org.graylog.events.notifications.EventNotificationService;
+import org.graylog.events.notifications.NotificationTestData;
 import org.graylog.events.notifications.PermanentEventNotificationException;
-import org.graylog.events.processor.EventDefinitionDto;
+import org.graylog.events.notifications.TemporaryEventNotificationException;
 import org.graylog.plugins.jira.client.JiraClient;
 import org.graylog.plugins.jira.client.JiraClientException;
-import org.graylog.scheduler.JobTriggerDto;
-import org.graylog2.jackson.TypeReferences;
 import org.graylog2.plugin.MessageSummary;
 
+import java.time.Instant;
 import java.util.Map;
-import java.util.Optional;
 
 import jakarta.inject.Inject;
 
@@ -28,18 +26,22 @@ public class JiraEventNotification implements EventNotification {
         JiraEventNotification create();
     }
 
-    private static final String UNKNOWN = "<unknown>";
-
     private final EventNotificationService notificationCallbackService;
     private final JiraClient jiraClient;
+    private final JiraEventCoalescer coalescer;
+    private final JiraNotificationDispatcher dispatcher;
     private final ObjectMapper objectMapper;
 
     @Inject
     public JiraEventNotification(final EventNotificationService notificationCallbackService,
                                  final JiraClient client,
+                                 final JiraEventCoalescer coalescer,
+                                 final JiraNotificationDispatcher dispatcher,
                                  final ObjectMapper objectMapper) {
         this.notificationCallbackService = notificationCallbackService;
         this.jiraClient = client;
+        this.coalescer = coalescer;
+        this.dispatcher = dispatcher;
         this.objectMapper = objectMapper;
     }
 
@@ -49,28 +51,44 @@ public class JiraEventNotification implements EventNotification {
         final ImmutableList<MessageSummary> backlog = notificationCallbackService.getBacklogForEvent(ctx);
 
         final Map<String, Object> model = getModel(ctx, backlog);
+        final String notificationId = ctx.notificationId();
+        final Instant occurredAt = Instant.ofEpochMilli(ctx.event().eventTimestamp().getMillis());
+        if (NotificationTestData.TEST_NOTIFICATION_ID.equals(notificationId)) {
+            // a test shows the names Jira does not know, instead of saving the config waiting for Jira
+            try {
+                jiraClient.checkNames(config);
+            } catch (final JiraClientException e) {
+                throw new PermanentEventNotificationException(e.getMessage(), e);
+            }
+        }
+        if (dispatcher.isEnabled()) {
+            // transient failures are queued again by the dispatcher, the others are logged
+            dispatcher.dispatch(() -> send(notificationId, config, model, occurredAt));
+            return;
+        }
         try {
-            jiraClient.createIssue(config, model);
+            send(notificationId, config, model, occurredAt);
         } catch (final JiraClientException e) {
+            if (e.isTransient()) {
+                // Graylog retries the notification later
+                throw new TemporaryEventNotificationException("JiraEventNotification is triggered but Jira is not available", e);
+            }
             throw new PermanentEventNotificationException("JiraEventNotification is triggered but failed sending request", e);
         }
     }
 
+    private void send(final String notificationId, final JiraEventNotificationConfig config,
+                      final Map<String, Object> model, final Instant occurredAt) {
+        if (config.coalesceWindowSeconds() > 0) {
+            coalescer.add(notificationId, config, model, occurredAt);
+        } else {
+            jiraClient.createIssue(notificationId, config, model, occurredAt);
+        }
+    }
+
     private Map<String, Object> getModel(final EventNotificationContext ctx,
                                          final ImmutableList<MessageSummary> backlog) {
-        final Optional<EventDefinitionDto> definitionDto = ctx.eventDefinition();
-        final Optional<JobTriggerDto> jobTriggerDto = ctx.jobTrigger();
-        final EventNotificationModelData modelData = EventNotificationModelData.builder()
-                .eventDefinitionId(definitionDto.map(EventDefinitionDto::id).orElse(UNKNOWN))
-                .eventDefinitionType(definitionDto.map(d -> d.config().type()).orElse(UNKNOWN))
-                .eventDefinitionTitle(definitionDto.map(EventDefinitionDto::title).orElse(UNKNOWN))
-                .eventDefinitionDescription(definitionDto.map(EventDefinitionDto::description).orElse(UNKNOWN))
-                .jobDefinitionId(jobTriggerDto.map(JobTriggerDto::jobDefinitionId).orElse(UNKNOWN))
-                .jobTriggerId(jobTriggerDto.map(JobTriggerDto::id).orElse(UNKNOWN))
-                .event(ctx.event())
-                .backlog(backlog)
-                .build();
-
-        return objectMapper.convertValue(modelData, TypeReferences.MAP_STRING_OBJECT);
+        // converted lazily, templates usually read only a part of it
+        return new JiraNotificationModel(ctx.eventDefinition(), ctx.jobTrigger(), ctx.event(), backlog, objectMapper);
     }
 }
@@ -12,6 +12,9 @@ import org.graylog.events.contentpack.entities.EventNotificationConfigEntity;
 import org.graylog.events.event.EventDto;
 import org.graylog.events.notifications.EventNotificationConfig;
 import org.graylog.events.notifications.EventNotificationExecutionJob;
+import org.graylog.plugins.jira.client.JiraAuthType;
+import org.graylog.plugins.jira.client.JiraDuplicateMode;
+import org.graylog.plugins.jira.client.JiraHashAlgorithm;
 import org.graylog.scheduler.JobTriggerData;
 import org.graylog2.contentpacks.EntityDescriptorIds;
 import org.graylog2.contentpacks.model.entities.references.ValueReference;
@@ -53,6 +56,15 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
     public static final String FIELD_SEARCH_GRAYLOG_HASH_REGEX = "search_graylog_hash_regex";
     public static final String FIELD_SEARCH_FILTER_JQL = "search_filter_jql";
     public static final String FIELD_DUPLICATE_ISSUE_COMMENT = "duplicate_issue_comment";
+    public static final String FIELD_COALESCE_WINDOW_SECONDS = "coalesce_window_seconds";
+    public static final String FIELD_GRAYLOG_HASH_ALGORITHM = "graylog_hash_algorithm";
+    public static final String FIELD_DESCRIPTION_MAX_LENGTH = "description_max_length";
+    public static final String FIELD_BACKLOG_ATTACHMENT = "backlog_attachment";
+    public static final String FIELD_DUPLICATE_MODE = "duplicate_mode";
+    public static final String FIELD_DUPLICATE_FLUSH_SECONDS = "duplicate_flush_seconds";
+    public static final String FIELD_OCCURRENCE_COUNT_FIELD = "occurrence_count_field";
+    public static final String FIELD_LAST_SEEN_FIELD = "last_seen_field";
+    public static final String FIELD_AUTH_TYPE = "auth_type";
 
     // Default values
     public static final String DEFAULT_ISSUE_SUMMARY = "Graylog log error - ${event.id}";
@@ -78,6 +90,7 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
             *Fields:*
             ${foreach event.fields field} ${field.key}: ${field.value}
             ${end}
+            ${end}
             ${if backlog}
             --- [Backlog] ---
             *Messages:*
@@ -87,8 +100,7 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
             ${message}
             ```
             ${end}
-            ${end}"
-        """;
+            ${end}""";
 
     @JsonProperty(FIELD_JIRA_URL)
     @NotBlank
@@ -154,6 +166,33 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
     @JsonProperty(FIELD_DUPLICATE_ISSUE_COMMENT)
     public abstract String duplicateIssueComment();
 
+    @JsonProperty(FIELD_COALESCE_WINDOW_SECONDS)
+    public abstract int coalesceWindowSeconds();
+
+    @JsonProperty(FIELD_GRAYLOG_HASH_ALGORITHM)
+    public abstract String graylogHashAlgorithm();
+
+    @JsonProperty(FIELD_DESCRIPTION_MAX_LENGTH)
+    public abstract int descriptionMaxLength();
+
+    @JsonProperty(FIELD_BACKLOG_ATTACHMENT)
+    public abstract boolean backlogAttachment();
+
+    @JsonProperty(FIELD_DUPLICATE_MODE)
+    public abstract String duplicateMode();
+
+    @JsonProperty(FIELD_DUPLICATE_FLUSH_SECONDS)
+    public abstract int duplicateFlushSeconds();
+
+    @JsonProperty(FIELD_OCCURRENCE_COUNT_FIELD)
+    public abstract String occurrenceCountField();
+
+    @JsonProperty(FIELD_LAST_SEEN_FIELD)
+    public abstract String lastSeenField();
+
+    @JsonProperty(FIELD_AUTH_TYPE)
+    public abstract String authType();
+
     public static Builder builder() {
         return Builder.create();
     }
@@ -181,7 +220,12 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
         if (!validURL(proxyURL())) {
             validation.addError(FIELD_PROXY_URL, FIELD_PROXY_URL + " is invalid format.");
         }
-        if (credUsername().isEmpty()) {
+        final JiraAuthType authType = JiraAuthType.parse(authType());
+        if (authType == null) {
+            validation.addError(FIELD_AUTH_TYPE, FIELD_AUTH_TYPE + " is not a supported authentication.");
+        }
+        // personal access token is not bound to a username
+        if (authType != JiraAuthType.BEARER && credUsername().isEmpty()) {
             validation.addError(FIELD_CRED_USERNAME, FIELD_CRED_USERNAME + " cannot be empty.");
         }
         if (credPassword().isEmpty()) {
@@ -199,9 +243,6 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
         if (issueDescription().isEmpty()) {
             validation.addError(FIELD_ISSUE_DESCRIPTION, FIELD_ISSUE_DESCRIPTION + " cannot be empty.");
         }
-        if (!searchGraylogHashField().isEmpty() && !searchGraylogHashField().contains("=")) {
-            validation.addError(FIELD_SEARCH_GRAYLOG_HASH_FIELD, FIELD_SEARCH_GRAYLOG_HASH_FIELD + " is incorrectly filled.");
-        }
         if (!searchGraylogHashRegex().isEmpty()) {
             try {
                 Pattern.compile(searchGraylogHashRegex());
@@ -209,6 +250,26 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
                 validation.addError(FIELD_SEARCH_GRAYLOG_HASH_REGEX, FIELD_SEARCH_GRAYLOG_HASH_REGEX + " is not a valid regex.");
             }
         }
+        if (coalesceWindowSeconds() < 0) {
+            validation.addError(FIELD_COALESCE_WINDOW_SECONDS, FIELD_COALESCE_WINDOW_SECONDS + " cannot be negative.");
+        }
+        if (descriptionMaxLength() < 0) {
+            validation.addError(FIELD_DESCRIPTION_MAX_LENGTH, FIELD_DESCRIPTION_MAX_LENGTH + " cannot be negative.");
+        }
+        if (JiraHashAlgorithm.parse(graylogHashAlgorithm()) == null) {
+            validation.addError(FIELD_GRAYLOG_HASH_ALGORITHM, FIELD_GRAYLOG_HASH_ALGORITHM + " is not a supported hash algorithm.");
+        }
+        final JiraDuplicateMode duplicateMode = JiraDuplicateMode.parse(duplicateMode());
+        if (duplicateMode == null) {
+            validation.addError(FIELD_DUPLICATE_MODE, FIELD_DUPLICATE_MODE + " is not a supported duplicate handling.");
+        } else if (duplicateMode != JiraDuplicateMode.COMMENT && duplicateFlushSeconds() <= 0) {
+            validation.addError(FIELD_DUPLICATE_FLUSH_SECONDS, FIELD_DUPLICATE_FLUSH_SECONDS + " must be positive.");
+        }
+        if (duplicateMode == JiraDuplicateMode.COUNTER && occurrenceCountField().isEmpty() && lastSeenField().isEmpty()) {
+            validation.addError(FIELD_OCCURRENCE_COUNT_FIELD, FIELD_OCCURRENCE_COUNT_FIELD + " or " + FIELD_LAST_SEEN_FIELD
+                    + " must be set for " + JiraDuplicateMode.COUNTER + " duplicate handling.");
+        }
+        // names are checked against Jira when the notification is tested, saving it does not wait for Jira
         return validation;
     }
 
@@ -233,7 +294,16 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
                     .searchGraylogHashField("")
                     .searchGraylogHashRegex("")
                     .searchFilterJQL("")
-                    .duplicateIssueComment("");
+                    .duplicateIssueComment("")
+                    .coalesceWindowSeconds(0)
+                    .graylogHashAlgorithm("MD5")
+                    .descriptionMaxLength(32000)
+                    .backlogAttachment(false)
+                    .duplicateMode("COMMENT")
+                    .duplicateFlushSeconds(300)
+                    .occurrenceCountField("")
+                    .lastSeenField("")
+                    .authType("BASIC");
         }
 
         @JsonProperty(FIELD_JIRA_URL)
@@ -293,6 +363,33 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
         @JsonProperty(FIELD_DUPLICATE_ISSUE_COMMENT)
         public abstract Builder duplicateIssueComment(String duplicateIssueComment);
 
+        @JsonProperty(FIELD_COALESCE_WINDOW_SECONDS)
+        public abstract Builder coalesceWindowSeconds(int coalesceWindowSeconds);
+
+        @JsonProperty(FIELD_GRAYLOG_HASH_ALGORITHM)
+        public abstract Builder graylogHashAlgorithm(String graylogHashAlgorithm);
+
+        @JsonProperty(FIELD_DESCRIPTION_MAX_LENGTH)
+        public abstract Builder descriptionMaxLength(int descriptionMaxLength);
+
+        @JsonProperty(FIELD_BACKLOG_ATTACHMENT)
+        public abstract Builder backlogAttachment(boolean backlogAttachment);
+
+        @JsonProperty(FIELD_DUPLICATE_MODE)
+        public abstract Builder duplicateMode(String duplicateMode);
+
+        @JsonProperty(FIELD_DUPLICATE_FLUSH_SECONDS)
+        public abstract Builder duplicateFlushSeconds(int duplicateFlushSeconds);
+
+        @JsonProperty(FIELD_OCCURRENCE_COUNT_FIELD)
+        public abstract Builder occurrenceCountField(String occurrenceCountField);
+
+        @JsonProperty(FIELD_LAST_SEEN_FIELD)
+        public abstract Builder lastSeenField(String lastSeenField);
+
+        @JsonProperty(FIELD_AUTH_TYPE)
+        public abstract Builder authType(String authType);
+
         public abstract JiraEventNotificationConfig build();
     }
 
@@ -318,6 +415,15 @@ public abstract class JiraEventNotificationConfig implements EventNotificationCo
                 .searchGraylogHashRegex(ValueReference.of(searchGraylogHashRegex()))
                 .searchFilterJQL(ValueReference.of(searchFilterJQL()))
                 .duplicateIssueComment(ValueReference.of(duplicateIssueComment()))
+                .coalesceWindowSeconds(ValueReference.of(coalesceWindowSeconds()))
+                .graylogHashAlgorithm(ValueReference.of(graylogHashAlgorithm()))
+                .descriptionMaxLength(ValueReference.of(descriptionMaxLength()))
+                .backlogAttachment(ValueReference.of(backlogAttachment()))
+                .duplicateMode(ValueReference.of(duplicateMode()))
+                .duplicateFlushSeconds(ValueReference.of(duplicateFlushSeconds()))
+                .occurrenceCountField(ValueReference.of(occurrenceCountField()))
+                .lastSeenField(ValueReference.of(lastSeenField()))
+                .authType(ValueReference.of(authType()))
                 .build();
     }
 
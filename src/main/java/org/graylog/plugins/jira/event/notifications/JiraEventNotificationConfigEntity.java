@@ -83,6 +83,33 @@ public abstract class JiraEventNotificationConfigEntity implements EventNotifica
     @JsonProperty(JiraEventNotificationConfig.FIELD_DUPLICATE_ISSUE_COMMENT)
     public abstract ValueReference duplicateIssueComment();
 
+    @JsonProperty(JiraEventNotificationConfig.FIELD_COALESCE_WINDOW_SECONDS)
+    public abstract ValueReference coalesceWindowSeconds();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_GRAYLOG_HASH_ALGORITHM)
+    public abstract ValueReference graylogHashAlgorithm();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_DESCRIPTION_MAX_LENGTH)
+    public abstract ValueReference descriptionMaxLength();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_BACKLOG_ATTACHMENT)
+    public abstract ValueReference backlogAttachment();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_DUPLICATE_MODE)
+    public abstract ValueReference duplicateMode();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_DUPLICATE_FLUSH_SECONDS)
+    public abstract ValueReference duplicateFlushSeconds();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_OCCURRENCE_COUNT_FIELD)
+    public abstract ValueReference occurrenceCountField();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_LAST_SEEN_FIELD)
+    public abstract ValueReference lastSeenField();
+
+    @JsonProperty(JiraEventNotificationConfig.FIELD_AUTH_TYPE)
+    public abstract ValueReference authType();
+
     public static Builder builder() {
         return Builder.create();
     }
@@ -95,7 +122,17 @@ public abstract class JiraEventNotificationConfigEntity implements EventNotifica
 
         @JsonCreator
         public static Builder create() {
-            return new AutoValue_JiraEventNotificationConfigEntity.Builder().type(TYPE_NAME);
+            return new AutoValue_JiraEventNotificationConfigEntity.Builder()
+                    .type(TYPE_NAME)
+                    .coalesceWindowSeconds(ValueReference.of(0))
+                    .graylogHashAlgorithm(ValueReference.of("MD5"))
+                    .descriptionMaxLength(ValueReference.of(32000))
+                    .backlogAttachment(ValueReference.of(false))
+                    .duplicateMode(ValueReference.of("COMMENT"))
+                    .duplicateFlushSeconds(ValueReference.of(300))
+                    .occurrenceCountField(ValueReference.of(""))
+                    .lastSeenField(ValueReference.of(""))
+                    .authType(ValueReference.of("BASIC"));
         }
 
         @JsonProperty(JiraEventNotificationConfig.FIELD_JIRA_URL)
@@ -155,6 +192,33 @@ public abstract class JiraEventNotificationConfigEntity implements EventNotifica
         @JsonProperty(JiraEventNotificationConfig.FIELD_DUPLICATE_ISSUE_COMMENT)
         public abstract Builder duplicateIssueComment(ValueReference duplicateIssueComment);
 
+        @JsonProperty(JiraEventNotificationConfig.FIELD_COALESCE_WINDOW_SECONDS)
+        public abstract Builder coalesceWindowSeconds(ValueReference coalesceWindowSeconds);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_GRAYLOG_HASH_ALGORITHM)
+        public abstract Builder graylogHashAlgorithm(ValueReference graylogHashAlgorithm);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_DESCRIPTION_MAX_LENGTH)
+        public abstract Builder descriptionMaxLength(ValueReference descriptionMaxLength);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_BACKLOG_ATTACHMENT)
+        public abstract Builder backlogAttachment(ValueReference backlogAttachment);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_DUPLICATE_MODE)
+        public abstract Builder duplicateMode(ValueReference duplicateMode);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_DUPLICATE_FLUSH_SECONDS)
+        public abstract Builder duplicateFlushSeconds(ValueReference duplicateFlushSeconds);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_OCCURRENCE_COUNT_FIELD)
+        public abstract Builder occurrenceCountField(ValueReference occurrenceCountField);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_LAST_SEEN_FIELD)
+        public abstract Builder lastSeenField(ValueReference lastSeenField);
+
+        @JsonProperty(JiraEventNotificationConfig.FIELD_AUTH_TYPE)
+        public abstract Builder authType(ValueReference authType);
+
         public abstract JiraEventNotificationConfigEntity build();
     }
 
@@ -181,6 +245,15 @@ public abstract class JiraEventNotificationConfigEntity implements EventNotifica
                 .searchGraylogHashRegex(searchGraylogHashRegex().asString(parameters))
                 .searchFilterJQL(searchFilterJQL().asString(parameters))
                 .duplicateIssueComment(duplicateIssueComment().asString(parameters))
+                .coalesceWindowSeconds(coalesceWindowSeconds().asInteger(parameters))
+                .graylogHashAlgorithm(graylogHashAlgorithm().asString(parameters))
+                .descriptionMaxLength(descriptionMaxLength().asInteger(parameters))
+                .backlogAttachment(backlogAttachment().asBoolean(parameters))
+                .duplicateMode(duplicateMode().asString(parameters))
+                .duplicateFlushSeconds(duplicateFlushSeconds().asInteger(parameters))
+                .occurrenceCountField(occurrenceCountField().asString(parameters))
+                .lastSeenField(lastSeenField().asString(parameters))
+                .authType(authType().asString(parameters))
                 .build();
     }
 }
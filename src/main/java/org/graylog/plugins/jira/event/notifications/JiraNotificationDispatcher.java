@@ -0,0 +1,282 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.graylog.events.notifications.TemporaryEventNotificationException;
+import org.graylog.plugins.jira.JiraPluginConfiguration;
+import org.graylog.plugins.jira.client.JiraClientException;
+import org.graylog2.shared.metrics.MetricUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+/**
+ * Runs Jira notification work on its own worker pool, so a slow Jira does not hold up Graylog's job scheduler.
+ * Work is put into a bounded queue, what happens when it is full is decided by the {@link OverflowPolicy}.
+ * Graylog cannot retry work which failed after it was queued, so work failing with a transient error is queued
+ * again after a growing delay.
+ */
+@Singleton
+public class JiraNotificationDispatcher extends AbstractIdleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JiraNotificationDispatcher.class);
+    private static final long POLL_MILLIS = 100;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    public enum OverflowPolicy {
+        /**
+         * Wait for free space up to the block timeout, then let Graylog retry the notification.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest queued work to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Let Graylog retry the notification later from its persistent job queue.
+         */
+        SPILL
+    }
+
+    private final boolean enabled;
+    private final int workers;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final int retryAttempts;
+    private final long retryBackoffMillis;
+    private final BlockingQueue<Work> queue;
+    // tasks of a shut down scheduler cannot be run anymore, work waiting for its retry is kept here as well
+    private final ConcurrentLinkedQueue<Work> waitingForRetry = new ConcurrentLinkedQueue<>();
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter retried;
+    private final Counter failed;
+    private ExecutorService executor;
+    private ScheduledExecutorService retryScheduler;
+    // new work is accepted
+    private volatile boolean accepting;
+    // workers wait for more work, once cleared they exit when the queue is empty
+    private volatile boolean running;
+
+    @Inject
+    public JiraNotificationDispatcher(@Named(JiraPluginConfiguration.DISPATCH_ASYNC) final boolean enabled,
+                                      @Named(JiraPluginConfiguration.DISPATCH_QUEUE_SIZE) final int queueSize,
+                                      @Named(JiraPluginConfiguration.DISPATCH_WORKERS) final int workers,
+                                      @Named(JiraPluginConfiguration.DISPATCH_OVERFLOW_POLICY) final String overflowPolicy,
+                                      @Named(JiraPluginConfiguration.DISPATCH_BLOCK_TIMEOUT) final Duration blockTimeout,
+                                      @Named(JiraPluginConfiguration.DISPATCH_SHUTDOWN_TIMEOUT) final Duration shutdownTimeout,
+                                      @Named(JiraPluginConfiguration.DISPATCH_RETRY_ATTEMPTS) final int retryAttempts,
+                                      @Named(JiraPluginConfiguration.DISPATCH_RETRY_BACKOFF) final Duration retryBackoff,
+                                      final MetricRegistry metricRegistry) {
+        this.enabled = enabled;
+        this.workers = workers;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        this.blockTimeoutMillis = blockTimeout.toMilliseconds();
+        this.shutdownTimeoutMillis = shutdownTimeout.toMilliseconds();
+        this.retryAttempts = retryAttempts;
+        this.retryBackoffMillis = retryBackoff.toMilliseconds();
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+
+        MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraNotificationDispatcher.class, "queue-size"),
+                (Gauge<Integer>) queue::size);
+        MetricUtils.safelyRegister(metricRegistry, MetricRegistry.name(JiraNotificationDispatcher.class, "queue-remaining"),
+                (Gauge<Integer>) queue::remainingCapacity);
+        this.dropped = metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "dropped"));
+        this.spilled = metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "spilled"));
+        this.retried = metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "retried"));
+        this.failed = metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "failed"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues given work, applying the overflow policy when the queue is full.
+     *
+     * @throws TemporaryEventNotificationException when the work was not queued and Graylog should retry it
+     */
+    public void dispatch(final Runnable runnable) throws TemporaryEventNotificationException {
+        final Work work = new Work(runnable, 1);
+        if (!accepting) {
+            throw new TemporaryEventNotificationException("Jira notification dispatcher is not running");
+        }
+        if (queue.offer(work)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(work, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                spill();
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(work)) {
+                    if (queue.poll() != null) {
+                        dropped.inc();
+                        LOG.warn("Jira notification queue is full, dropped oldest notification");
+                    }
+                }
+            }
+            case SPILL -> spill();
+        }
+    }
+
+    @Override
+    protected void startUp() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        executor = Executors.newFixedThreadPool(workers, workerThreadFactory());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("jira-dispatch-retry-%d").setDaemon(true).build());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @Override
+    protected void shutDown() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        accepting = false;
+        // work waiting for its retry gets a last attempt instead of waiting out the delay, it is queued while the
+        // workers still wait for work
+        retryScheduler.shutdownNow();
+        Work waiting;
+        while ((waiting = waitingForRetry.poll()) != null) {
+            requeue(waiting);
+        }
+        running = false;
+        LOG.debug("Draining {} queued Jira notification(s)", queue.size());
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+        final int discarded = queue.size();
+        if (discarded > 0) {
+            queue.clear();
+            dropped.inc(discarded);
+            LOG.warn("Jira notification queue not drained in time, discarded {} notification(s)", discarded);
+        }
+    }
+
+    private void spill() throws TemporaryEventNotificationException {
+        spilled.inc();
+        throw new TemporaryEventNotificationException("Jira notification queue is full");
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            final Work work;
+            try {
+                work = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (work == null) {
+                continue;
+            }
+            try {
+                work.runnable().run();
+            } catch (final JiraClientException e) {
+                if (e.isTransient()) {
+                    retryLater(work, e);
+                } else {
+                    failed.inc();
+                    LOG.error("Failed to send notification to Jira", e);
+                }
+            } catch (final RuntimeException e) {
+                failed.inc();
+                LOG.error("Failed to send notification to Jira", e);
+            }
+        }
+    }
+
+    private void retryLater(final Work work, final JiraClientException failure) {
+        if (work.attempt() >= retryAttempts || !running) {
+            failed.inc();
+            LOG.error("Failed to send notification to Jira, giving up after {} attempt(s)", work.attempt(), failure);
+            return;
+        }
+        final long delay = failure.getRetryAfterMillis() >= 0 ? failure.getRetryAfterMillis()
+                : Math.min(MAX_RETRY_BACKOFF_MILLIS, retryBackoffMillis << Math.min(work.attempt() - 1, 20));
+        LOG.warn("Failed to send notification to Jira, attempt {} of {} in {} ms: {}", work.attempt() + 1,
+                retryAttempts, delay, failure.getMessage());
+        final Work next = new Work(work.runnable(), work.attempt() + 1);
+        waitingForRetry.add(next);
+        try {
+            retryScheduler.schedule(() -> {
+                if (waitingForRetry.remove(next)) {
+                    requeue(next);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            retried.inc();
+        } catch (final RejectedExecutionException e) {
+            // shut down meanwhile, unless the shutdown queued it already
+            if (waitingForRetry.remove(next)) {
+                failed.inc();
+                LOG.error("Failed to send notification to Jira, giving up on shutdown", failure);
+            } else {
+                retried.inc();
+            }
+        }
+    }
+
+    private void requeue(final Work work) {
+        if (!queue.offer(work)) {
+            dropped.inc();
+            LOG.warn("Jira notification queue is full, dropped notification waiting for retry");
+        }
+    }
+
+    /**
+     * Virtual threads when running on a JDK which has them (21+), platform daemon threads otherwise.
+     */
+    private static ThreadFactory workerThreadFactory() {
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Object named = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "jira-dispatch-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(named);
+        } catch (final ReflectiveOperationException e) {
+            return new ThreadFactoryBuilder().setNameFormat("jira-dispatch-%d").setDaemon(true).build();
+        }
+    }
+
+    /**
+     * @param attempt number of the next attempt, starting at 1
+     */
+    private record Work(Runnable runnable, int attempt) {
+    }
+}
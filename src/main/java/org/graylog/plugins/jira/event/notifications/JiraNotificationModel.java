@@ -0,0 +1,121 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.graylog.events.event.EventDto;
+import org.graylog.events.notifications.EventNotificationModelData;
+import org.graylog.events.processor.EventDefinitionDto;
+import org.graylog.scheduler.JobTriggerDto;
+import org.graylog2.jackson.TypeReferences;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Template model of a notification with the same content as {@link EventNotificationModelData} converted to a map,
+ * but each entry is converted only when it is read and then kept. Backlog messages are converted one by one, so
+ * templates rendering a few variables or a part of the backlog do not pay for the rest.
+ * <p>
+ * Not thread safe, a model is used by one notification at a time.
+ */
+final class JiraNotificationModel extends AbstractMap<String, Object> {
+
+    private static final String UNKNOWN = "<unknown>";
+
+    private final Map<String, Supplier<Object>> pending = new LinkedHashMap<>();
+    private final Map<String, Object> values = new HashMap<>();
+
+    /**
+     * @param backlog backlog messages, usually {@link org.graylog2.plugin.MessageSummary}
+     */
+    JiraNotificationModel(final Optional<EventDefinitionDto> definitionDto, final Optional<JobTriggerDto> jobTriggerDto,
+                          final EventDto event, final List<?> backlog,
+                          final ObjectMapper objectMapper) {
+        pending.put(EventNotificationModelData.FIELD_EVENT_DEFINITION_ID,
+                () -> definitionDto.map(EventDefinitionDto::id).orElse(UNKNOWN));
+        pending.put(EventNotificationModelData.FIELD_EVENT_DEFINITION_TYPE,
+                () -> definitionDto.map(d -> d.config().type()).orElse(UNKNOWN));
+        pending.put(EventNotificationModelData.FIELD_EVENT_DEFINITION_TITLE,
+                () -> definitionDto.map(EventDefinitionDto::title).orElse(UNKNOWN));
+        pending.put(EventNotificationModelData.FIELD_EVENT_DEFINITION_DESCRIPTION,
+                () -> definitionDto.map(EventDefinitionDto::description).orElse(UNKNOWN));
+        pending.put(EventNotificationModelData.FIELD_JOB_DEFINITION_ID,
+                () -> jobTriggerDto.map(JobTriggerDto::jobDefinitionId).orElse(UNKNOWN));
+        pending.put(EventNotificationModelData.FIELD_JOB_TRIGGER_ID,
+                () -> jobTriggerDto.map(JobTriggerDto::id).orElse(UNKNOWN));
+        pending.put(EventNotificationModelData.FIELD_EVENT,
+                () -> objectMapper.convertValue(event, TypeReferences.MAP_STRING_OBJECT));
+        pending.put(EventNotificationModelData.FIELD_BACKLOG, () -> new LazyList(backlog, objectMapper));
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final Supplier<Object> supplier = pending.remove(key);
+        if (supplier != null) {
+            final Object value = supplier.get();
+            values.put((String) key, value);
+            return value;
+        }
+        return values.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return values.containsKey(key) || pending.containsKey(key);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        pending.remove(key);
+        return values.put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        pending.remove(key);
+        return values.remove(key);
+    }
+
+    /**
+     * Converts all entries, needed only by callers iterating the whole model.
+     */
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        for (final String key : List.copyOf(pending.keySet())) {
+            get(key);
+        }
+        return values.entrySet();
+    }
+
+    private static final class LazyList extends AbstractList<Object> {
+        private final List<?> messages;
+        private final ObjectMapper objectMapper;
+        private final Object[] converted;
+
+        LazyList(final List<?> messages, final ObjectMapper objectMapper) {
+            this.messages = messages;
+            this.objectMapper = objectMapper;
+            this.converted = new Object[messages.size()];
+        }
+
+        @Override
+        public Object get(final int index) {
+            if (converted[index] == null) {
+                converted[index] = objectMapper.convertValue(messages.get(index), TypeReferences.MAP_STRING_OBJECT);
+            }
+            return converted[index];
+        }
+
+        @Override
+        public int size() {
+            return messages.size();
+        }
+    }
+}
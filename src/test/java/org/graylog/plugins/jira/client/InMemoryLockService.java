@@ -0,0 +1,60 @@
+package org.graylog.plugins.jira.client;
+
+import org.graylog2.cluster.lock.Lock;
+import org.graylog2.cluster.lock.LockService;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cluster lock service of one node, nodes sharing a map see each other's locks. Like Graylog's, locks are reentrant
+ * per node and never block.
+ */
+class InMemoryLockService implements LockService {
+
+    private final ConcurrentMap<String, Lock> locks;
+    private final String nodeId;
+
+    InMemoryLockService(final ConcurrentMap<String, Lock> locks, final String nodeId) {
+        this.locks = locks;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public Optional<Lock> lock(final String resource, final String lockContext) {
+        return lock(resource);
+    }
+
+    @Override
+    public Optional<Lock> lock(final String resource) {
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        final Lock lock = locks.compute(resource, (r, current) -> current == null || current.lockedBy().equals(nodeId)
+                ? Lock.builder().resource(r).lockedBy(nodeId).createdAt(now).updatedAt(now).build()
+                : current);
+        return lock.lockedBy().equals(nodeId) ? Optional.of(lock) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Lock> lock(final String resource, final int maxConcurrency) {
+        return lock(resource);
+    }
+
+    @Override
+    public Optional<Lock> extendLock(final Lock lock) {
+        return lock(lock.resource());
+    }
+
+    @Override
+    public Optional<Lock> unlock(final String resource, final String lockContext) {
+        final Lock lock = locks.get(resource);
+        return lock != null && lock.lockedBy().equals(nodeId) && locks.remove(resource, lock)
+                ? Optional.of(lock) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Lock> unlock(final Lock lock) {
+        return unlock(lock.resource(), null);
+    }
+}
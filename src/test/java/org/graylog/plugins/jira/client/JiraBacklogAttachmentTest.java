@@ -0,0 +1,51 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraBacklogAttachmentTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void requestBody_writesGzippedNdjson() throws IOException {
+        final List<Map<String, Object>> backlog = List.of(
+                Map.of("message", "first"),
+                Map.of("message", "second \"quoted\"\nline"));
+
+        final MultipartBody body = (MultipartBody) JiraBacklogAttachment.requestBody(backlog, objectMapper);
+        final RequestBody file = body.part(0).body();
+        final Buffer buffer = new Buffer();
+        file.writeTo(buffer);
+
+        final String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(buffer.inputStream())) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals("{\"message\":\"first\"}\n{\"message\":\"second \\\"quoted\\\"\\nline\"}\n", ndjson);
+        assertEquals("application/gzip", file.contentType().toString());
+    }
+
+    @Test
+    void requestBody_namesFilePart() throws IOException {
+        final Buffer buffer = new Buffer();
+        JiraBacklogAttachment.requestBody(List.of(Map.of("message", "first")), objectMapper).writeTo(buffer);
+
+        final String multipart = buffer.readString(StandardCharsets.ISO_8859_1);
+        assertTrue(multipart.contains("name=\"file\"; filename=\"backlog.ndjson.gz\""), multipart);
+        assertTrue(multipart.trim().endsWith("--"), "multipart body is completed");
+    }
+}
@@ -0,0 +1,102 @@
+package org.graylog.plugins.jira.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.joschi.jadconfig.util.Duration;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraBatchIssueSearcherTest {
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final MockWebServer server = new MockWebServer();
+    private final JiraBatchIssueSearcher searcher = new JiraBatchIssueSearcher(true, Duration.minutes(1), 3);
+    private JiraCompiledConfig compiled;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        compiled = JiraCompiledConfig.of(JiraEventNotificationConfig.builder()
+                .jiraURL(server.url("/").toString())
+                .credUsername("user")
+                .credPassword("pwd")
+                .projectKey("GRAYLOG")
+                .issueType("Bug")
+                .searchGraylogHashField("customfield_123=Graylog hash")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void submit_searchesFullBatchWithOneQuery() throws Exception {
+        // "ABCD" merely contains "ABC", it must not be taken for its duplicate
+        server.enqueue(new MockResponse().setBody("{\"total\":2,\"issues\":["
+                + "{\"id\":\"10001\",\"fields\":{\"customfield_123\":\"ABCD\"}},"
+                + "{\"id\":\"10002\",\"fields\":{\"customfield_123\":\"DEF\"}}]}"));
+
+        final CompletableFuture<String> first = searcher.submit(client, compiled, "ABC");
+        final CompletableFuture<String> second = searcher.submit(client, compiled, "DEF");
+        final CompletableFuture<String> third = searcher.submit(client, compiled, "DEF");
+
+        assertNull(first.get());
+        assertEquals("10002", second.get());
+        assertEquals("10002", third.get());
+        assertEquals(1, server.getRequestCount());
+
+        final RecordedRequest request = server.takeRequest();
+        final JsonNode body = new ObjectMapper().readTree(request.getBody().readUtf8());
+        assertEquals("POST", request.getMethod());
+        assertEquals("project = GRAYLOG AND (\"Graylog hash\" ~ \"ABC\" OR \"Graylog hash\" ~ \"DEF\")",
+                body.path("jql").asText());
+        assertEquals("customfield_123", body.path("fields").get(1).asText());
+    }
+
+    @Test
+    void submit_failsAllSearchesOfFailedBatch() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        final CompletableFuture<String> first = searcher.submit(client, compiled, "ABC");
+        final CompletableFuture<String> second = searcher.submit(client, compiled, "DEF");
+        final CompletableFuture<String> third = searcher.submit(client, compiled, "GHI");
+
+        for (final CompletableFuture<String> result : List.of(first, second, third)) {
+            final ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(JiraClientException.class, e.getCause());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void submit_failsTransientlyAfterShutDown() {
+        searcher.startAsync().awaitRunning();
+        searcher.stopAsync().awaitTerminated();
+
+        final CompletableFuture<String> late = searcher.submit(client, compiled, "ABC");
+
+        final ExecutionException e = assertThrows(ExecutionException.class, late::get);
+        assertTrue(assertInstanceOf(JiraClientException.class, e.getCause()).isTransient());
+        assertEquals(0, server.getRequestCount());
+    }
+}
@@ -0,0 +1,93 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraBulkIssueCreatorTest {
+
+    private static final Headers AUTH = Headers.of("Authorization", "Basic x");
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final MockWebServer server = new MockWebServer();
+    private final JiraBulkIssueCreator creator = new JiraBulkIssueCreator(true, Duration.minutes(1), 2);
+    private HttpUrl bulkURL;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        bulkURL = server.url("/rest/api/2/issue/bulk");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void submit_sendsFullBatchInOneRequest() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201)
+                .setBody("{\"issues\":[{\"id\":\"10001\"},{\"id\":\"10002\"}],\"errors\":[]}"));
+
+        final CompletableFuture<String> first = creator.submit(client, bulkURL, AUTH, issue("a"));
+        final CompletableFuture<String> second = creator.submit(client, bulkURL, AUTH, issue("b"));
+
+        assertEquals("10001", first.get());
+        assertEquals("10002", second.get());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void submit_failsOnlyRejectedIssue() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201)
+                .setBody("{\"issues\":[{\"id\":\"10002\"}],"
+                        + "\"errors\":[{\"status\":400,\"failedElementNumber\":0,\"elementErrors\":{}}]}"));
+
+        final CompletableFuture<String> rejected = creator.submit(client, bulkURL, AUTH, issue("a"));
+        final CompletableFuture<String> created = creator.submit(client, bulkURL, AUTH, issue("b"));
+
+        assertEquals("10002", created.get());
+        final ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(JiraClientException.class, e.getCause());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void submit_failsTransientlyAfterShutDown() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201)
+                .setBody("{\"issues\":[{\"id\":\"10001\"}],\"errors\":[]}"));
+        creator.startAsync().awaitRunning();
+        final CompletableFuture<String> open = creator.submit(client, bulkURL, AUTH, issue("a"));
+
+        creator.stopAsync().awaitTerminated();
+        final CompletableFuture<String> late = creator.submit(client, bulkURL, AUTH, issue("b"));
+
+        assertEquals("10001", open.get());
+        final ExecutionException e = assertThrows(ExecutionException.class, late::get);
+        assertTrue(assertInstanceOf(JiraClientException.class, e.getCause()).isTransient());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private static JiraIssue issue(final String summary) {
+        return new JiraIssue("GRAYLOG", summary, "desc", "bug", null, null, new HashSet<>(), new HashSet<>(),
+                null, null, null, new HashMap<>());
+    }
+}
@@ -0,0 +1,75 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JiraCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final MockWebServer server = new MockWebServer();
+    private final JiraCircuitBreaker breaker = new JiraCircuitBreaker(true, 50, 100, Duration.seconds(10),
+            4, 2, Duration.seconds(30), new MetricRegistry(), now::get);
+    private final OkHttpClient client = new OkHttpClient.Builder().addInterceptor(breaker).build();
+    private HttpUrl url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        url = server.url("/rest/api/2/search");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void intercept_opensOnFailuresAndClosesAfterTrialCall() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        call();
+        call();
+        assertEquals(JiraCircuitBreaker.State.OPEN, breaker.state(url));
+
+        final JiraCircuitOpenException e = assertThrows(JiraCircuitOpenException.class, this::call);
+        assertEquals(30000, e.getRetryAfterMillis());
+        assertEquals(2, server.getRequestCount());
+
+        now.addAndGet(30000);
+        server.enqueue(new MockResponse().setResponseCode(200));
+        call();
+        assertEquals(JiraCircuitBreaker.State.CLOSED, breaker.state(url));
+    }
+
+    @Test
+    void intercept_ignoresClientErrors() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(400));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        call();
+        call();
+
+        assertEquals(JiraCircuitBreaker.State.CLOSED, breaker.state(url));
+    }
+
+    private void call() throws IOException {
+        try (Response ignored = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            // outcome is recorded by the breaker
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+import com.floreysoft.jmte.Engine;
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.graylog.events.event.EventDto;
+import org.graylog.events.notifications.EventNotificationContext;
+import org.graylog.events.notifications.EventNotificationException;
+import org.graylog.events.notifications.EventNotificationService;
+import org.graylog.plugins.jira.event.notifications.JiraEventCoalescer;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotification;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.graylog.plugins.jira.event.notifications.JiraNotificationDispatcher;
+import org.graylog2.plugin.MessageSummary;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends events through {@link JiraEventNotification#execute} from many threads to a mock Jira and reports
+ * throughput, latency percentiles and Jira requests per event. Run with {@code mvn -Pload-test test}, the load
+ * is set with system properties, e.g. {@code -Djira.load.events=20000 -Djira.load.error-rate=0.1}.
+ */
+@Tag("load")
+class JiraClientLoadTest {
+
+    private static final int EVENTS = Integer.getInteger("jira.load.events", 5000);
+    private static final int THREADS = Integer.getInteger("jira.load.threads", 32);
+    private static final int KEYS = Integer.getInteger("jira.load.keys", 100);
+    private static final long LATENCY_MILLIS = Long.getLong("jira.load.latency-ms", 20);
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("jira.load.error-rate", "0.02"));
+    private static final double THROTTLE_RATE = Double.parseDouble(System.getProperty("jira.load.throttle-rate", "0.02"));
+    private static final boolean BATCH_SEARCH = Boolean.getBoolean("jira.load.batch-search");
+    private static final String DUPLICATE_MODE = System.getProperty("jira.load.duplicate-mode", "COMMENT");
+    private static final boolean CREATE_LOCK = Boolean.parseBoolean(System.getProperty("jira.load.create-lock", "true"));
+
+    private static final String HASH_FIELD = "customfield_10100";
+    private static final String COUNT_FIELD = "customfield_10200";
+    private static final DateTime NOW = new DateTime(2025, 3, 1, 12, 0, DateTimeZone.UTC);
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new Jdk8Module())
+            .registerModule(new JodaModule());
+    private final MockJira jira = new MockJira();
+    private final MockWebServer server = new MockWebServer();
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private JiraHttpClientRegistry clientRegistry;
+    private JiraBatchIssueSearcher batchIssueSearcher;
+    private JiraDuplicateAggregator duplicateAggregator;
+    private JiraEventNotification notification;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.setDispatcher(jira);
+        server.start();
+        mongoServer = new MongoServer(new MemoryBackend());
+        mongoClient = MongoClients.create(mongoServer.bindAndGetConnectionString());
+
+        clientRegistry = new JiraHttpClientRegistry(Duration.seconds(5), Duration.seconds(30), Duration.seconds(30),
+                THREADS, Duration.minutes(5),
+                new JiraCircuitBreaker(false, 50, 100, Duration.seconds(10), 100, 10, Duration.seconds(30),
+                        metricRegistry),
+                new JiraRateLimiter(0, 1, Duration.seconds(1), metricRegistry));
+        batchIssueSearcher = new JiraBatchIssueSearcher(BATCH_SEARCH, Duration.milliseconds(100), 50);
+        duplicateAggregator = new JiraDuplicateAggregator();
+        duplicateAggregator.startAsync().awaitRunning();
+        final JiraClient client = new JiraClient(
+                new JiraTemplateRenderer(new Engine()),
+                clientRegistry,
+                new JiraIssueCache(10_000, Duration.hours(1), metricRegistry),
+                new JiraIssueIndex(mongoClient.getDatabase("graylog").getCollection(JiraIssueIndex.COLLECTION_NAME),
+                        true, Duration.days(1), Clock.systemUTC()),
+                new JiraBulkIssueCreator(false, Duration.seconds(1), 50),
+                batchIssueSearcher,
+                duplicateAggregator,
+                new JiraMetadataCache(false, Duration.minutes(10), clientRegistry),
+                new JiraIssueCreateLock(CREATE_LOCK, Duration.seconds(30),
+                        new InMemoryLockService(new ConcurrentHashMap<>(), "load-test")),
+                new JiraRetryPolicy(5, Duration.milliseconds(10), Duration.milliseconds(200), Duration.seconds(30)),
+                new JiraNotificationMetrics(metricRegistry));
+        final EventNotificationService backlogService = new EventNotificationService(null, null) {
+            @Override
+            public ImmutableList<MessageSummary> getBacklogForEvent(final EventNotificationContext ctx) {
+                return ImmutableList.of();
+            }
+        };
+        notification = new JiraEventNotification(backlogService, client, new JiraEventCoalescer(client),
+                new JiraNotificationDispatcher(false, 1, 1, "BLOCK", Duration.seconds(1), Duration.seconds(1), 1,
+                        Duration.seconds(1),
+                        metricRegistry),
+                objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        duplicateAggregator.stopAsync().awaitTerminated();
+        batchIssueSearcher.stopAsync().awaitTerminated();
+        clientRegistry.stopAsync().awaitTerminated();
+        server.shutdown();
+        mongoClient.close();
+        mongoServer.shutdown();
+    }
+
+    @Test
+    void execute_underConcurrentLoad() throws InterruptedException {
+        final JiraEventNotificationConfig config = JiraEventNotificationConfig.builder()
+                .jiraURL(server.url("/").toString())
+                .credUsername("graylog")
+                .credPassword("secret")
+                .projectKey("OPS")
+                .issueType("Bug")
+                .searchGraylogHashField(HASH_FIELD + "=Graylog hash")
+                .searchGraylogHashRegex("\\*Key:\\* (.*)")
+                .duplicateIssueComment("Occurred again: ${event.message}")
+                .duplicateMode(DUPLICATE_MODE)
+                .duplicateFlushSeconds(1)
+                .occurrenceCountField(COUNT_FIELD)
+                .build();
+
+        final long[] latencies = new long[EVENTS];
+        final AtomicInteger failed = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS,
+                new ThreadFactoryBuilder().setNameFormat("jira-load-%d").build());
+        final long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            final int n = i;
+            final EventNotificationContext ctx = EventNotificationContext.builder()
+                    .notificationId("load")
+                    .notificationConfig(config)
+                    .event(event("service-" + (n % KEYS)))
+                    .build();
+            executor.execute(() -> {
+                final long sent = System.nanoTime();
+                try {
+                    notification.execute(ctx);
+                } catch (final EventNotificationException e) {
+                    failed.incrementAndGet();
+                }
+                latencies[n] = System.nanoTime() - sent;
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+        final long elapsed = System.nanoTime() - start;
+        // writes the duplicates still being counted
+        duplicateAggregator.stopAsync().awaitTerminated();
+
+        Arrays.sort(latencies);
+        final int duplicateIssues = jira.created.get() - jira.issueByHash.size();
+        System.out.printf(Locale.ROOT, "%d events, %d threads, %d keys, %d ms latency, %.1f%% errors, %.1f%% 429s,"
+                        + " batch search %s, duplicates %s, create lock %s%n",
+                EVENTS, THREADS, KEYS, LATENCY_MILLIS, ERROR_RATE * 100, THROTTLE_RATE * 100, BATCH_SEARCH,
+                DUPLICATE_MODE, CREATE_LOCK);
+        System.out.printf(Locale.ROOT, "throughput: %.1f events/s%n", EVENTS / (elapsed / 1e9));
+        System.out.printf(Locale.ROOT, "latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+        System.out.printf(Locale.ROOT, "requests per event: %.3f (search=%d create=%d comment=%d update=%d error=%d"
+                        + " 429=%d)%n",
+                (double) server.getRequestCount() / EVENTS, jira.searches.get(), jira.creates.get(),
+                jira.comments.get(), jira.updates.get(), jira.errors.get(), jira.throttled.get());
+        System.out.printf(Locale.ROOT, "issues: %d, duplicate issues: %d, failed events: %d%n",
+                jira.created.get(), duplicateIssues, failed.get());
+
+        assertEquals(0, failed.get());
+        assertEquals(KEYS, jira.issueByHash.size());
+        if (CREATE_LOCK) {
+            assertEquals(0, duplicateIssues);
+        }
+        // every event either created an issue or was told to the existing one, exactly once
+        assertEquals(EVENTS, jira.created.get() + jira.occurrences.get());
+        assertEquals(0, jira.unknownIssues.get());
+    }
+
+    private static double percentile(final long[] sorted, final double quantile) {
+        final int index = Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+
+    private static EventDto event(final String key) {
+        return EventDto.builder()
+                .id(UUID.randomUUID().toString())
+                .eventDefinitionType("aggregation-v1")
+                .eventDefinitionId("65f1c0a2e4b0a1b2c3d4e5f6")
+                .originContext("urn:graylog:message:es:graylog_42:" + UUID.randomUUID())
+                .eventTimestamp(NOW)
+                .processingTimestamp(NOW)
+                .timerangeStart(NOW.minusMinutes(5))
+                .timerangeEnd(NOW)
+                .streams(Set.of("000000000000000000000001"))
+                .sourceStreams(Set.of("000000000000000000000001"))
+                .message("Error rate of " + key + " above threshold")
+                .source("graylog-node-1")
+                .keyTuple(List.of(key))
+                .key(key)
+                .priority(2)
+                .alert(true)
+                .fields(Map.of("service", key))
+                .groupByFields(Map.of("service", key))
+                .build();
+    }
+
+    /**
+     * Jira keeping its issues in memory. Errors and 429s are returned before a request changes anything, so
+     * retried requests are counted once.
+     */
+    private final class MockJira extends Dispatcher {
+        private static final Pattern JQL_HASH = Pattern.compile("~ \"([^\"]*)\"");
+        private static final Pattern ISSUE_PATH = Pattern.compile("/rest/api/2/issue/(\\d+)(/comment)?");
+        private static final Pattern OCCURRENCES = Pattern.compile("\\*Occurrences:\\* (\\d+)");
+
+        private final ConcurrentMap<String, String> issueByHash = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Long> occurrenceCounts = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger(10000);
+        private final AtomicInteger searches = new AtomicInteger();
+        private final AtomicInteger creates = new AtomicInteger();
+        private final AtomicInteger comments = new AtomicInteger();
+        private final AtomicInteger updates = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicInteger throttled = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger occurrences = new AtomicInteger();
+        private final AtomicInteger unknownIssues = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(final RecordedRequest request) {
+            return respond(request).setHeadersDelay(LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private MockResponse respond(final RecordedRequest request) {
+            final HttpUrl url = request.getRequestUrl();
+            final String path = url == null ? "" : url.encodedPath();
+            final Matcher issue = ISSUE_PATH.matcher(path);
+            if ("/rest/api/2/search".equals(path)) {
+                searches.incrementAndGet();
+            } else if ("/rest/api/2/issue".equals(path)) {
+                creates.incrementAndGet();
+            } else if (issue.matches()) {
+                (issue.group(2) == null ? updates : comments).incrementAndGet();
+            } else {
+                return new MockResponse().setResponseCode(404);
+            }
+
+            final double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < THROTTLE_RATE) {
+                throttled.incrementAndGet();
+                return new MockResponse().setResponseCode(429).setHeader("Retry-After", "0");
+            }
+            if (roll < THROTTLE_RATE + ERROR_RATE) {
+                errors.incrementAndGet();
+                return new MockResponse().setResponseCode(503);
+            }
+
+            if ("/rest/api/2/search".equals(path)) {
+                return search("GET".equals(request.getMethod())
+                        ? url.queryParameter("jql") : body(request).path("jql").asText());
+            }
+            if ("/rest/api/2/issue".equals(path)) {
+                final String issueId = String.valueOf(nextId.incrementAndGet());
+                occurrenceCounts.put(issueId, 0L);
+                issueByHash.putIfAbsent(body(request).path("fields").path(HASH_FIELD).asText(), issueId);
+                created.incrementAndGet();
+                return json("{\"id\":\"" + issueId + "\",\"key\":\"OPS-" + issueId + "\"}").setResponseCode(201);
+            }
+            final String issueId = issue.group(1);
+            if (!occurrenceCounts.containsKey(issueId)) {
+                unknownIssues.incrementAndGet();
+                return new MockResponse().setResponseCode(404);
+            }
+            if (issue.group(2) != null) {
+                // digest comments tell the number of occurrences when there was more than one
+                final Matcher count = OCCURRENCES.matcher(body(request).path("body").asText());
+                occurrences.addAndGet(count.find() ? Integer.parseInt(count.group(1)) : 1);
+                return json("{\"id\":\"1\"}").setResponseCode(201);
+            }
+            if ("GET".equals(request.getMethod())) {
+                return json("{\"id\":\"" + issueId + "\",\"fields\":{\"" + COUNT_FIELD + "\":"
+                        + occurrenceCounts.get(issueId) + "}}");
+            }
+            final long count = body(request).path("fields").path(COUNT_FIELD).asLong();
+            final long previous = occurrenceCounts.put(issueId, count);
+            occurrences.addAndGet((int) (count - previous));
+            return new MockResponse().setResponseCode(204);
+        }
+
+        private MockResponse search(final String jql) {
+            final Matcher hash = JQL_HASH.matcher(jql);
+            int total = 0;
+            final StringBuilder found = new StringBuilder();
+            while (hash.find()) {
+                final String issueId = issueByHash.get(hash.group(1));
+                if (issueId != null) {
+                    found.append(total++ == 0 ? "" : ",").append("{\"id\":\"").append(issueId)
+                            .append("\",\"fields\":{\"").append(HASH_FIELD).append("\":\"").append(hash.group(1))
+                            .append("\"}}");
+                }
+            }
+            return json("{\"total\":" + total + ",\"issues\":[" + found + "]}");
+        }
+
+        private JsonNode body(final RecordedRequest request) {
+            try {
+                return objectMapper.readTree(request.getBody().readUtf8());
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static MockResponse json(final String body) {
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.floreysoft.jmte.Engine;
+import com.github.joschi.jadconfig.util.Duration;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraClientTest {
+
+    private static final String NO_ISSUES = "{\"issues\":[]}";
+
+    private final MockWebServer server = new MockWebServer();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private JiraHttpClientRegistry clientRegistry;
+    private JiraDuplicateAggregator duplicateAggregator;
+    private JiraClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        clientRegistry = new JiraHttpClientRegistry(Duration.seconds(5), Duration.seconds(5), Duration.seconds(5), 2,
+                Duration.minutes(1),
+                new JiraCircuitBreaker(false, 50, 100, Duration.seconds(10), 20, 10, Duration.seconds(30),
+                        metricRegistry),
+                new JiraRateLimiter(0, 1, Duration.seconds(1), metricRegistry));
+        duplicateAggregator = new JiraDuplicateAggregator();
+        duplicateAggregator.startAsync().awaitRunning();
+        client = new JiraClient(
+                new JiraTemplateRenderer(new Engine()),
+                clientRegistry,
+                new JiraIssueCache(100, Duration.hours(1), metricRegistry),
+                new JiraIssueIndex(null, false, Duration.hours(1), Clock.systemUTC()),
+                new JiraBulkIssueCreator(false, Duration.seconds(1), 50),
+                new JiraBatchIssueSearcher(false, Duration.milliseconds(100), 50),
+                duplicateAggregator,
+                new JiraMetadataCache(false, Duration.minutes(10), clientRegistry),
+                new JiraIssueCreateLock(true, Duration.seconds(5),
+                        new InMemoryLockService(new ConcurrentHashMap<>(), "node")),
+                new JiraRetryPolicy(3, Duration.milliseconds(1), Duration.milliseconds(5), Duration.seconds(5)),
+                new JiraNotificationMetrics(metricRegistry));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        duplicateAggregator.stopAsync().awaitTerminated();
+        clientRegistry.stopAsync().awaitTerminated();
+        server.shutdown();
+    }
+
+    @Test
+    void createIssue_forgetsDeletedIssueAndCreatesNewOne() throws Exception {
+        final JiraEventNotificationConfig config = config();
+        server.enqueue(new MockResponse().setBody(NO_ISSUES));
+        server.enqueue(new MockResponse().setResponseCode(201).setBody("{\"id\":\"10001\"}"));
+        client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH);
+
+        // issue was deleted in Jira, the known issue is forgotten and the event is retried
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("{}"));
+        final JiraClientException e = assertThrows(JiraClientException.class,
+                () -> client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH));
+        assertTrue(e.isTransient());
+
+        server.enqueue(new MockResponse().setBody(NO_ISSUES));
+        server.enqueue(new MockResponse().setResponseCode(201).setBody("{\"id\":\"10002\"}"));
+        client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH);
+
+        assertEquals("/rest/api/2/search", server.takeRequest().getRequestUrl().encodedPath());
+        assertEquals("/rest/api/2/issue", server.takeRequest().getPath());
+        assertEquals("/rest/api/2/issue/10001/comment", server.takeRequest().getPath());
+        assertEquals("/rest/api/2/search", server.takeRequest().getRequestUrl().encodedPath());
+        assertEquals("/rest/api/2/issue", server.takeRequest().getPath());
+    }
+
+    @Test
+    void createIssue_searchesBeforeCreatingAgainWhenResponseWasLost() throws Exception {
+        final JiraEventNotificationConfig config = config();
+        server.enqueue(new MockResponse().setBody(NO_ISSUES));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        // issue was created nevertheless
+        server.enqueue(new MockResponse().setBody("{\"issues\":[{\"id\":\"10001\",\"key\":\"GRAYLOG-1\"}]}"));
+        client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH);
+
+        server.enqueue(new MockResponse().setResponseCode(201));
+        client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH);
+
+        assertEquals("/rest/api/2/search", server.takeRequest().getRequestUrl().encodedPath());
+        assertEquals("/rest/api/2/issue", server.takeRequest().getPath());
+        assertEquals("/rest/api/2/search", server.takeRequest().getRequestUrl().encodedPath());
+        assertEquals("/rest/api/2/issue/10001/comment", server.takeRequest().getPath());
+    }
+
+    @Test
+    void createIssue_failsTransientlyWhenLostIssueIsNotFound() throws Exception {
+        final JiraEventNotificationConfig config = config();
+        server.enqueue(new MockResponse().setBody(NO_ISSUES));
+        server.enqueue(new MockResponse().setResponseCode(504));
+        server.enqueue(new MockResponse().setBody(NO_ISSUES));
+
+        final JiraClientException e = assertThrows(JiraClientException.class,
+                () -> client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH));
+
+        assertTrue(e.isTransient());
+        // create is not sent twice
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void createIssue_doesNotRepeatCommentWhichMayHaveBeenAdded() {
+        final JiraEventNotificationConfig config = config();
+        server.enqueue(new MockResponse().setBody("{\"issues\":[{\"id\":\"10001\",\"key\":\"GRAYLOG-1\"}]}"));
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        final JiraClientException e = assertThrows(JiraClientException.class,
+                () -> client.createIssue("notification", config, new HashMap<>(), Instant.EPOCH));
+
+        assertFalse(e.isTransient());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private JiraEventNotificationConfig config() {
+        return JiraEventNotificationConfig.builder()
+                .jiraURL(server.url("/").toString())
+                .credUsername("user")
+                .credPassword("pwd")
+                .projectKey("GRAYLOG")
+                .issueType("Bug")
+                .issueSummary("Alert")
+                .issueDescription("Something happened")
+                .searchGraylogHashField("customfield_10100=Graylog hash")
+                .duplicateIssueComment("Happened again")
+                .build();
+    }
+}
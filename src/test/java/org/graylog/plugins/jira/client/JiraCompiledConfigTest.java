@@ -0,0 +1,63 @@
+package org.graylog.plugins.jira.client;
+
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JiraCompiledConfigTest {
+
+    private final JiraEventNotificationConfig config = config("https://jira.example.com/jira", "a;b");
+
+    @Test
+    void of_parsesConfigOnce() {
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config);
+
+        assertSame(compiled, JiraCompiledConfig.of(config("https://jira.example.com/jira", "a;b")));
+        assertNotSame(compiled, JiraCompiledConfig.of(config("https://jira.example.com/jira", "c")));
+        assertEquals(Set.of("a", "b"), compiled.labels());
+        assertEquals(Map.of("customfield_1", "x", "customfield_2", "y"), compiled.customFields());
+        assertEquals("customfield_123", compiled.graylogHashFieldId());
+        assertEquals("Basic dXNlcjpwd2Q=", compiled.authHeaders().get("Authorization"));
+    }
+
+    @Test
+    void of_buildsURLsAndJQL() {
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config);
+
+        assertEquals("https://jira.example.com/jira/rest/api/2/issue", compiled.issueURL().toString());
+        assertEquals("https://jira.example.com/jira/rest/api/2/issue/10001/comment",
+                compiled.commentURL("10001").toString());
+        assertEquals("project = GRAYLOG AND status != Done AND \"Graylog hash\" ~ \"ABC\"",
+                compiled.duplicateSearchJQL("ABC"));
+        assertEquals("project = GRAYLOG AND status != Done AND (\"Graylog hash\" ~ \"ABC\" OR \"Graylog hash\" ~ \"DEF\")",
+                compiled.duplicateSearchJQL(List.of("ABC", "DEF")));
+    }
+
+    @Test
+    void of_rejectsInvalidURL() {
+        assertThrows(JiraClientException.class,
+                () -> JiraCompiledConfig.of(config("not a url", "")));
+    }
+
+    private static JiraEventNotificationConfig config(final String jiraURL, final String labels) {
+        return JiraEventNotificationConfig.builder()
+                .jiraURL(jiraURL)
+                .credUsername("user")
+                .credPassword("pwd")
+                .projectKey("GRAYLOG")
+                .issueType("Bug")
+                .issueLabels(labels)
+                .issueCustomFields("customfield_1=x,customfield_2=y")
+                .searchGraylogHashField("customfield_123=Graylog hash")
+                .searchFilterJQL("AND status != Done")
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package org.graylog.plugins.jira.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraDuplicateAggregatorTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final List<JiraDuplicateAggregator.Occurrences> flushed = new ArrayList<>();
+    private final JiraDuplicateAggregator aggregator = new JiraDuplicateAggregator();
+
+    @BeforeEach
+    void setUp() {
+        aggregator.startAsync().awaitRunning();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.stopAsync().awaitTerminated();
+    }
+
+    @Test
+    void add_countsDuplicatesUntilFlushed() {
+        aggregator.add("n1", "10001", 3600, Map.of("event", "first"), NOW, flushed::add);
+        aggregator.add("n1", "10001", 3600, Map.of("event", "second", JiraClient.MODEL_OCCURRENCE_COUNT, 5),
+                NOW, flushed::add);
+        aggregator.add("n1", "10002", 3600, Map.of("event", "other"), NOW, flushed::add);
+        assertTrue(flushed.isEmpty());
+
+        // pending counts are written on shutdown
+        aggregator.stopAsync().awaitTerminated();
+
+        assertEquals(2, flushed.size());
+        final JiraDuplicateAggregator.Occurrences occurrences = flushed.stream()
+                .filter(o -> o.count() == 6).findFirst().orElseThrow();
+        final Map<String, Object> model = occurrences.toModel();
+        assertEquals("second", model.get("event"));
+        assertEquals(6, model.get(JiraClient.MODEL_OCCURRENCE_COUNT));
+        assertEquals(NOW.toString(), model.get(JiraClient.MODEL_LAST_OCCURRENCE));
+        assertEquals(NOW, occurrences.lastOccurrence());
+    }
+
+    @Test
+    void add_usesEventTimeOfDelayedAndCoalescedEvents() {
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW, flushed::add);
+        // replayed event keeps the last occurrence, but is the first one
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW.minusSeconds(600), flushed::add);
+        aggregator.add("n1", "10001", 3600, Map.of(JiraClient.MODEL_OCCURRENCE_COUNT, 3,
+                JiraClient.MODEL_LAST_OCCURRENCE, NOW.plusSeconds(60).toString()), NOW.plusSeconds(10), flushed::add);
+        aggregator.stopAsync().awaitTerminated();
+
+        assertEquals(1, flushed.size());
+        final Map<String, Object> model = flushed.get(0).toModel();
+        assertEquals(5, model.get(JiraClient.MODEL_OCCURRENCE_COUNT));
+        assertEquals(NOW.minusSeconds(600).toString(), model.get(JiraClient.MODEL_FIRST_OCCURRENCE));
+        assertEquals(NOW.plusSeconds(60).toString(), model.get(JiraClient.MODEL_LAST_OCCURRENCE));
+        assertEquals(NOW.plusSeconds(60), flushed.get(0).lastOccurrence());
+    }
+
+    @Test
+    void add_flushesAfterInterval() throws InterruptedException {
+        aggregator.add("n1", "10001", 1, Map.of(), NOW, flushed::add);
+        aggregator.add("n1", "10001", 1, Map.of(), NOW, flushed::add);
+
+        Thread.sleep(1500);
+
+        assertEquals(1, flushed.size());
+        assertEquals(2, flushed.get(0).count());
+
+        // next duplicate opens a new interval
+        aggregator.add("n1", "10001", 1, Map.of(), NOW, flushed::add);
+        Thread.sleep(1500);
+        assertEquals(2, flushed.size());
+        assertEquals(1, flushed.get(1).count());
+    }
+
+    @Test
+    void flush_countsFailedDuplicatesAgain() {
+        final AtomicInteger failures = new AtomicInteger(1);
+        final Consumer<JiraDuplicateAggregator.Occurrences> flusher = occurrences -> {
+            if (failures.getAndDecrement() > 0) {
+                throw JiraClientException.forStatus("busy", 503, null);
+            }
+            flushed.add(occurrences);
+        };
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW, flusher);
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW, flusher);
+
+        aggregator.flushAll();
+        assertTrue(flushed.isEmpty());
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW, flusher);
+        aggregator.stopAsync().awaitTerminated();
+
+        assertEquals(1, flushed.size());
+        assertEquals(3, flushed.get(0).count());
+    }
+
+    @Test
+    void flush_dropsCountsOfPermanentFailure() {
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW, occurrences -> {
+            throw JiraClientException.forStatus("bad request", 400, null);
+        });
+
+        aggregator.flushAll();
+        aggregator.add("n1", "10001", 3600, Map.of(), NOW, flushed::add);
+        aggregator.stopAsync().awaitTerminated();
+
+        assertEquals(1, flushed.size());
+        assertEquals(1, flushed.get(0).count());
+    }
+}
@@ -0,0 +1,70 @@
+package org.graylog.plugins.jira.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JiraHashAlgorithmTest {
+
+    @Test
+    void md5_matchesMessageDigest() throws Exception {
+        final String text = "Graylog événement ✓ " + "x".repeat(5000);
+
+        assertEquals(md5(text), JiraHashAlgorithm.MD5.hash(text));
+    }
+
+    @Test
+    void murmur_isStableAndDiffersFromMd5() {
+        final String hash = JiraHashAlgorithm.MURMUR3_128.hash("ABC123!");
+
+        assertEquals(32, hash.length());
+        assertEquals(hash, JiraHashAlgorithm.MURMUR3_128.hash("ABC123!"));
+        assertNotEquals(JiraHashAlgorithm.MD5.hash("ABC123!"), hash);
+    }
+
+    @Test
+    void parse_ignoresCase() {
+        assertEquals(JiraHashAlgorithm.MURMUR3_128, JiraHashAlgorithm.parse(" murmur3_128 "));
+        assertNull(JiraHashAlgorithm.parse("SHA1"));
+    }
+
+    @Test
+    void createGraylogHash_hashesJoinedGroups() throws Exception {
+        // groups up to the one before last are hashed, a group without match as "null"
+        assertEquals(md5("id=42id"), issue("id=42 msg", "(id)=(\\d+)").createGraylogHash());
+        assertEquals(md5("id=42 msgid=42null"), issue("id=42 msg", "(id=)(\\d+)(x)?(.*)").createGraylogHash());
+        assertEquals(md5("id=42id=null"), issue("id=42 msg", "(id=)(x)?(\\d+)").createGraylogHash());
+        assertEquals(md5("id=42"), issue("id=42 msg", "(id=\\d+)").createGraylogHash());
+        assertEquals(md5("id=42 msg"), issue("id=42 msg", "z*").createGraylogHash());
+        assertEquals(md5("id=42 msg"), issue("id=42 msg", null).createGraylogHash());
+    }
+
+    @Test
+    void createGraylogHash_usesAlgorithmOfFields() {
+        final JiraIssueFields fields = new JiraIssueFields("GRAYLOG", "bug", null, null, new HashSet<>(),
+                new HashSet<>(), null, "customfield_123", Pattern.compile("\\d+"), JiraHashAlgorithm.MURMUR3_128,
+                new HashMap<>());
+
+        assertEquals(JiraHashAlgorithm.MURMUR3_128.hash("123"),
+                new JiraIssue(fields, "summary", "ABC123!").createGraylogHash());
+    }
+
+    private static JiraIssue issue(final String description, final String regex) {
+        return new JiraIssue("GRAYLOG", "summary", description, "bug", null, null, new HashSet<>(), new HashSet<>(),
+                null, "customfield_123", regex, new HashMap<>());
+    }
+
+    private static String md5(final String text) throws Exception {
+        final byte[] digest = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().withUpperCase().formatHex(digest);
+    }
+}
@@ -0,0 +1,126 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraHttpClientRegistryTest {
+
+    private final JiraHttpClientRegistry registry = new JiraHttpClientRegistry(Duration.seconds(1),
+            Duration.seconds(1), Duration.seconds(1), 4, Duration.minutes(1),
+            new JiraCircuitBreaker(false, 50, 100, Duration.seconds(1), 10, 5, Duration.seconds(1), new MetricRegistry()),
+            new JiraRateLimiter(0, 1, Duration.seconds(1), new MetricRegistry()));
+
+    @Test
+    void clientFor_reusesClientPerKey() {
+        final OkHttpClient client = registry.clientFor("https://jira.example.com", "");
+
+        assertSame(client, registry.clientFor("https://jira.example.com", null));
+        assertNotSame(client, registry.clientFor("https://jira.example.com", "http://proxy:3128"));
+    }
+
+    @Test
+    void clientFor_sharesConnectionPool() {
+        final OkHttpClient direct = registry.clientFor("https://jira.example.com", "");
+        final OkHttpClient proxied = registry.clientFor("https://jira.example.com", "http://proxy:3128");
+
+        assertSame(direct.connectionPool(), proxied.connectionPool());
+        assertSame(direct.dispatcher(), proxied.dispatcher());
+    }
+
+    @Test
+    void clientFor_rateLimitRejectionsDoNotOpenCircuitBreaker() throws IOException {
+        final JiraCircuitBreaker breaker = new JiraCircuitBreaker(true, 50, 100, Duration.seconds(10), 4, 2,
+                Duration.seconds(30), new MetricRegistry());
+        final JiraHttpClientRegistry limited = new JiraHttpClientRegistry(Duration.seconds(1), Duration.seconds(1),
+                Duration.seconds(1), 4, Duration.minutes(1), breaker,
+                new JiraRateLimiter(1, 1, Duration.milliseconds(0), new MetricRegistry()));
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse());
+            final HttpUrl url = server.url("/rest/api/2/search");
+            final OkHttpClient client = limited.clientFor(url.toString(), "");
+
+            call(client, url);
+            for (int i = 0; i < 10; i++) {
+                assertThrows(JiraRateLimitException.class, () -> call(client, url));
+            }
+
+            assertEquals(1, server.getRequestCount());
+            assertEquals(JiraCircuitBreaker.State.CLOSED, breaker.state(url));
+        } finally {
+            limited.stopAsync().awaitTerminated();
+        }
+    }
+
+    @Test
+    void clientFor_rateLimitWaitIsNotSlowCall() throws IOException {
+        final JiraCircuitBreaker breaker = new JiraCircuitBreaker(true, 50, 50, Duration.milliseconds(50), 4, 2,
+                Duration.seconds(30), new MetricRegistry());
+        final JiraHttpClientRegistry limited = new JiraHttpClientRegistry(Duration.seconds(1), Duration.seconds(1),
+                Duration.seconds(1), 4, Duration.minutes(1), breaker,
+                new JiraRateLimiter(10, 1, Duration.seconds(1), new MetricRegistry()));
+        try (MockWebServer server = new MockWebServer()) {
+            final HttpUrl url = server.url("/rest/api/2/search");
+            final OkHttpClient client = limited.clientFor(url.toString(), "");
+
+            // every call but the first waits about 100 ms for a permit
+            for (int i = 0; i < 4; i++) {
+                server.enqueue(new MockResponse());
+                call(client, url);
+            }
+
+            assertEquals(JiraCircuitBreaker.State.CLOSED, breaker.state(url));
+        } finally {
+            limited.stopAsync().awaitTerminated();
+        }
+    }
+
+    @Test
+    void clientFor_keepsSessionPasswordWhenNotUpdating() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().addHeader("Set-Cookie", "JSESSIONID=s1; Path=/"));
+            server.enqueue(new MockResponse());
+            final HttpUrl url = server.url("/rest/api/2/search");
+            registry.clientFor(sessionConfig(server, "current"));
+
+            call(registry.clientFor(sessionConfig(server, "outdated"), false), url);
+
+            assertTrue(server.takeRequest().getBody().readUtf8().contains("\"password\":\"current\""));
+        } finally {
+            registry.stopAsync().awaitTerminated();
+        }
+    }
+
+    private static JiraEventNotificationConfig sessionConfig(final MockWebServer server, final String password) {
+        return JiraEventNotificationConfig.builder()
+                .jiraURL(server.url("/").toString())
+                .authType("SESSION")
+                .credUsername("user")
+                .credPassword(password)
+                .projectKey("GRAYLOG")
+                .issueType("Bug")
+                .build();
+    }
+
+    private static void call(final OkHttpClient client, final HttpUrl url) throws IOException {
+        try (Response ignored = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            // response is not needed
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JiraIssueCacheTest {
+
+    @Test
+    void get_countsHitsAndMisses() {
+        final JiraIssueCache cache = new JiraIssueCache(10, Duration.minutes(1), new MetricRegistry());
+        cache.put("https://jira.example.com", "GRAYLOG", "", "ABC", "10001");
+
+        assertEquals("10001", cache.get("https://jira.example.com", "GRAYLOG", "", "ABC"));
+        assertNull(cache.get("https://jira.example.com", "OTHER", "", "ABC"));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void put_evictsBeyondMaximumSize() {
+        final JiraIssueCache cache = new JiraIssueCache(1, Duration.minutes(1), new MetricRegistry());
+        cache.put("https://jira.example.com", "GRAYLOG", "", "ABC", "10001");
+        cache.put("https://jira.example.com", "GRAYLOG", "", "DEF", "10002");
+
+        assertNull(cache.get("https://jira.example.com", "GRAYLOG", "", "ABC"));
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    void remove_forgetsIssue() {
+        final JiraIssueCache cache = new JiraIssueCache(10, Duration.minutes(1), new MetricRegistry());
+        cache.put("https://jira.example.com", "GRAYLOG", "", "ABC", "10001");
+        cache.put("https://jira.example.com", "GRAYLOG", "AND resolution = Unresolved", "ABC", "10002");
+
+        cache.remove("https://jira.example.com", "GRAYLOG", "", "ABC");
+
+        assertNull(cache.get("https://jira.example.com", "GRAYLOG", "", "ABC"));
+        assertEquals("10002", cache.get("https://jira.example.com", "GRAYLOG", "AND resolution = Unresolved", "ABC"));
+    }
+}
@@ -0,0 +1,165 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.graylog2.cluster.lock.Lock;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraIssueCreateLockTest {
+
+    private final ConcurrentMap<String, Lock> clusterLocks = new ConcurrentHashMap<>();
+
+    @Test
+    void call_runsOneActionOfHashAtATimeAcrossNodes() throws Exception {
+        final JiraIssueCreateLock node1 = lock(true, Duration.seconds(10), "node-1");
+        final JiraIssueCreateLock node2 = lock(true, Duration.seconds(10), "node-2");
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8,
+                new ThreadFactoryBuilder().setNameFormat("create-lock-test-%d").build());
+        try {
+            final Future<?>[] futures = new Future<?>[40];
+            for (int i = 0; i < futures.length; i++) {
+                final JiraIssueCreateLock node = i % 2 == 0 ? node1 : node2;
+                futures[i] = executor.submit(() -> node.call("http://jira", "OPS", "ABC", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(2);
+                    return running.decrementAndGet();
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxRunning.get());
+        assertTrue(clusterLocks.isEmpty());
+    }
+
+    @Test
+    void call_failsTransientlyWhenLockIsHeldTooLong() throws Exception {
+        final JiraIssueCreateLock node1 = lock(true, Duration.seconds(10), "node-1");
+        final JiraIssueCreateLock node2 = lock(true, Duration.milliseconds(100), "node-2");
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("create-lock-test-%d").build());
+        try {
+            final Future<String> holder = executor.submit(() -> node1.call("http://jira", "OPS", "ABC", () -> {
+                locked.countDown();
+                await(release);
+                return "OPS-1";
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            final JiraClientException e = assertThrows(JiraClientException.class,
+                    () -> node2.call("http://jira", "OPS", "ABC", () -> "OPS-2"));
+            assertTrue(e.isTransient());
+            // other hashes are not held up
+            assertEquals("OPS-3", node2.call("http://jira", "OPS", "DEF", () -> "OPS-3"));
+
+            release.countDown();
+            assertEquals("OPS-1", holder.get(10, TimeUnit.SECONDS));
+            assertEquals("OPS-2", node2.call("http://jira", "OPS", "ABC", () -> "OPS-2"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void call_withoutLockWhenDisabled() {
+        final JiraIssueCreateLock node = lock(false, Duration.seconds(1), "node-1");
+
+        assertEquals("OPS-1", node.call("http://jira", "OPS", "ABC", () -> {
+            assertTrue(clusterLocks.isEmpty());
+            return "OPS-1";
+        }));
+    }
+
+    @Test
+    void call_extendsClusterLockWhileActionRuns() {
+        final AtomicInteger extended = new AtomicInteger();
+        final JiraIssueCreateLock node = new JiraIssueCreateLock(true, Duration.seconds(10),
+                new InMemoryLockService(clusterLocks, "node-1") {
+                    @Override
+                    public Optional<Lock> extendLock(final Lock lock) {
+                        extended.incrementAndGet();
+                        return super.extendLock(lock);
+                    }
+                }, 20);
+
+        assertEquals("OPS-1", node.call("http://jira", "OPS", "ABC", () -> {
+            sleep(200);
+            return "OPS-1";
+        }));
+        final int extendedWhileHeld = extended.get();
+        sleep(100);
+
+        assertTrue(extendedWhileHeld >= 2, "extended " + extendedWhileHeld + " times");
+        assertEquals(extendedWhileHeld, extended.get());
+        assertTrue(clusterLocks.isEmpty());
+    }
+
+    @Test
+    void callOnNode_locksOnlyThisNode() throws Exception {
+        final JiraIssueCreateLock node = lock(true, Duration.seconds(10), "node-1");
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4,
+                new ThreadFactoryBuilder().setNameFormat("create-lock-test-%d").build());
+        try {
+            final Future<?>[] futures = new Future<?>[20];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> node.callOnNode("http://jira", "OPS", "ABC", () -> {
+                    assertTrue(clusterLocks.isEmpty());
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(2);
+                    return running.decrementAndGet();
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    private JiraIssueCreateLock lock(final boolean enabled, final Duration timeout, final String nodeId) {
+        return new JiraIssueCreateLock(enabled, timeout, new InMemoryLockService(clusterLocks, nodeId));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
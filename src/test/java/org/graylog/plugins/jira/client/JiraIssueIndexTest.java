@@ -0,0 +1,106 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JiraIssueIndexTest {
+
+    private static final String JIRA_URL = "https://jira.example.com";
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoCollection<Document> collection;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        collection = client.getDatabase("graylog").getCollection(JiraIssueIndex.COLLECTION_NAME);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void put_isVisibleToOtherNodes() {
+        final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+        final JiraIssueIndex node1 = new JiraIssueIndex(collection, true, Duration.days(1), clock);
+        final JiraIssueIndex node2 = new JiraIssueIndex(collection, true, Duration.days(1), clock);
+
+        node1.put(JIRA_URL, "GRAYLOG", "", "ABC", "10001");
+
+        assertEquals("10001", node2.get(JIRA_URL, "GRAYLOG", "", "ABC"));
+        assertNull(node2.get(JIRA_URL, "OTHER", "", "ABC"));
+    }
+
+    @Test
+    void put_replacesIssueOfSameHash() {
+        final JiraIssueIndex index = new JiraIssueIndex(collection, true, Duration.days(1), Clock.systemUTC());
+
+        index.put(JIRA_URL, "GRAYLOG", "", "ABC", "10001");
+        index.put(JIRA_URL, "GRAYLOG", "", "ABC", "10002");
+
+        assertEquals("10002", index.get(JIRA_URL, "GRAYLOG", "", "ABC"));
+        assertEquals(1, collection.countDocuments());
+    }
+
+    @Test
+    void get_ignoresExpiredEntries() {
+        final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        new JiraIssueIndex(collection, true, Duration.hours(1), Clock.fixed(now, ZoneOffset.UTC))
+                .put(JIRA_URL, "GRAYLOG", "", "ABC", "10001");
+
+        final JiraIssueIndex later = new JiraIssueIndex(collection, true, Duration.hours(1),
+                Clock.fixed(now.plusSeconds(7200), ZoneOffset.UTC));
+
+        assertNull(later.get(JIRA_URL, "GRAYLOG", "", "ABC"));
+    }
+
+    @Test
+    void get_keepsIssuePerSearchFilter() {
+        final JiraIssueIndex index = new JiraIssueIndex(collection, true, Duration.days(1), Clock.systemUTC());
+
+        index.put(JIRA_URL, "GRAYLOG", "AND resolution = Unresolved", "ABC", "10001");
+
+        assertEquals("10001", index.get(JIRA_URL, "GRAYLOG", "AND resolution = Unresolved", "ABC"));
+        assertNull(index.get(JIRA_URL, "GRAYLOG", "", "ABC"));
+    }
+
+    @Test
+    void remove_forgetsIssue() {
+        final JiraIssueIndex index = new JiraIssueIndex(collection, true, Duration.days(1), Clock.systemUTC());
+        index.put(JIRA_URL, "GRAYLOG", "", "ABC", "10001");
+
+        index.remove(JIRA_URL, "GRAYLOG", "", "ABC");
+
+        assertNull(index.get(JIRA_URL, "GRAYLOG", "", "ABC"));
+    }
+
+    @Test
+    void disabled_neitherStoresNorFinds() {
+        final JiraIssueIndex index = new JiraIssueIndex(collection, false, Duration.days(1), Clock.systemUTC());
+
+        index.put(JIRA_URL, "GRAYLOG", "", "ABC", "10001");
+
+        assertNull(index.get(JIRA_URL, "GRAYLOG", "", "ABC"));
+        assertEquals(0, collection.countDocuments());
+    }
+}
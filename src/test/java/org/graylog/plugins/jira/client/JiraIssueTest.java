@@ -10,6 +10,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import okio.Buffer;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
@@ -61,6 +63,34 @@ class JiraIssueTest {
         assertNotEquals(jiNoRegex.createGraylogHash(), jiWithRegex.createGraylogHash());
     }
 
+    @Test
+    void toJsonString_customFieldsDoNotReplaceStandardFields() throws IOException {
+        final Map<String, String> customFields = new HashMap<>();
+        customFields.put("summary", "custom");
+        customFields.put("customfield_123", "custom");
+        final JiraIssue ji = new JiraIssue("GRAYLOG", "summary", "desc", "bug", null, null,
+                new HashSet<>(), new HashSet<>(), null, "customfield_123", null, customFields);
+        final String expected = "{\"fields\": {"
+                + "\"project\":{\"key\":\"GRAYLOG\"},"
+                + "\"summary\":\"summary\","
+                + "\"description\":\"desc\","
+                + "\"issuetype\":{\"name\":\"bug\"},"
+                + "\"customfield_123\":\"" + ji.createGraylogHash() + "\""
+                + "}}";
+
+        assertJSON(expected, ji.toJsonString());
+    }
+
+    @Test
+    void requestBody_matchesToJsonString() throws IOException {
+        final JiraIssue ji = new JiraIssue("GRAYLOG", "summary", "desc \"quoted\" \u00e9", "bug", "homer", "high",
+                Set.of("label"), Set.of("component"), "test", "customfield_123", null, new HashMap<>());
+        final Buffer buffer = new Buffer();
+        JiraIssueSerializer.requestBody(ji).writeTo(buffer);
+
+        assertEquals(ji.toJsonString(), buffer.readUtf8());
+    }
+
     private void assertJSON(final String json1, final String json2) throws IOException {
         final ObjectMapper mapper = new ObjectMapper();
         final JsonNode node1 = mapper.readTree(json1);
@@ -0,0 +1,153 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.graylog2.plugin.rest.ValidationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraMetadataCacheTest {
+
+    private static final String FIELDS = "[{\"id\":\"summary\",\"name\":\"Summary\"},"
+            + "{\"id\":\"customfield_10100\",\"name\":\"Graylog hash\"},"
+            + "{\"id\":\"customfield_10200\",\"name\":\"Team\"}]";
+    private static final String CREATE_META = "{\"projects\":[{\"id\":\"10000\",\"key\":\"GRAYLOG\",\"issuetypes\":["
+            + "{\"id\":\"1\",\"name\":\"Bug\",\"fields\":{"
+            + "\"priority\":{\"allowedValues\":[{\"id\":\"2\",\"name\":\"High\"}]},"
+            + "\"components\":{\"allowedValues\":[{\"id\":\"10010\",\"name\":\"Backend\"}]}}}]}]}";
+
+    private final MockWebServer server = new MockWebServer();
+    private JiraHttpClientRegistry clientRegistry;
+    private JiraMetadataCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        clientRegistry = new JiraHttpClientRegistry(Duration.seconds(5), Duration.seconds(5), Duration.seconds(5), 2,
+                Duration.minutes(1),
+                new JiraCircuitBreaker(false, 50, 100, Duration.seconds(10), 20, 10, Duration.seconds(30),
+                        metricRegistry),
+                new JiraRateLimiter(0, 1, Duration.seconds(1), metricRegistry));
+        cache = new JiraMetadataCache(true, Duration.hours(1), clientRegistry);
+        cache.startAsync().awaitRunning();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        cache.stopAsync().awaitTerminated();
+        clientRegistry.stopAsync().awaitTerminated();
+        server.shutdown();
+    }
+
+    @Test
+    void get_loadsMetadataOnceAndResolvesNames() throws Exception {
+        server.enqueue(new MockResponse().setBody(FIELDS));
+        server.enqueue(new MockResponse().setBody(CREATE_META));
+        final JiraEventNotificationConfig config = config("High", "Backend", "Graylog hash");
+
+        final JiraMetadata metadata = cache.get(config);
+
+        assertSame(metadata, cache.get(config));
+        assertEquals(2, server.getRequestCount());
+        assertEquals("/rest/api/2/field", server.takeRequest().getPath());
+        assertEquals("/rest/api/2/issue/createmeta?projectKeys=GRAYLOG&expand=projects.issuetypes.fields",
+                server.takeRequest().getPath());
+
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config, metadata);
+        assertEquals("\"project\":{\"id\":\"10000\"},\"issuetype\":{\"id\":\"1\"},\"priority\":{\"id\":\"2\"},"
+                + "\"components\":[{\"id\":\"10010\"}],\"customfield_10200\":\"core\"", compiled.issueFields().json());
+        assertEquals("customfield_10100", compiled.graylogHashFieldId());
+        assertEquals("project = GRAYLOG AND cf[10100] ~ \"ABC\"", compiled.duplicateSearchJQL("ABC"));
+    }
+
+    @Test
+    void get_sendsNamesWhenMetadataCannotBeLoaded() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        final JiraEventNotificationConfig config = config("High", "Backend", "customfield_10100");
+
+        assertNull(cache.get(config));
+        // failed load is tried again on refresh only
+        assertNull(cache.get(config));
+        assertEquals(1, server.getRequestCount());
+
+        final JiraCompiledConfig compiled = JiraCompiledConfig.of(config, null);
+        assertTrue(compiled.issueFields().json().startsWith("\"project\":{\"key\":\"GRAYLOG\"}"));
+        assertEquals("project = GRAYLOG AND cf[10100] ~ \"ABC\"", compiled.duplicateSearchJQL("ABC"));
+    }
+
+    @Test
+    void check_reportsUnknownNames() {
+        server.enqueue(new MockResponse().setBody(FIELDS));
+        server.enqueue(new MockResponse().setBody(CREATE_META));
+
+        final JiraClientException e = assertThrows(JiraClientException.class,
+                () -> cache.check(config("Lowest", "Backend;Frontend", "Graylog hash")));
+
+        assertFalse(e.isTransient());
+        assertTrue(e.getMessage().contains("Priority Lowest does not exist"), e.getMessage());
+        assertTrue(e.getMessage().contains("Component Frontend does not exist"), e.getMessage());
+        assertFalse(e.getMessage().contains("Component Backend"), e.getMessage());
+        assertFalse(e.getMessage().contains("Graylog hash"), e.getMessage());
+    }
+
+    @Test
+    void validate_doesNotCallJira() {
+        final ValidationResult validation = config("Lowest", "Backend;Frontend", "Graylog hash").validate();
+
+        assertFalse(validation.failed());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    void refresh_usesLatestConfig() throws Exception {
+        server.enqueue(new MockResponse().setBody(FIELDS));
+        server.enqueue(new MockResponse().setBody(CREATE_META));
+        server.enqueue(new MockResponse().setBody(FIELDS));
+        server.enqueue(new MockResponse().setBody(CREATE_META));
+        cache.get(config("High", "Backend", "Graylog hash"));
+        server.takeRequest();
+        server.takeRequest();
+
+        final JiraEventNotificationConfig edited = config("High", "Backend", "Graylog hash", "new-pwd");
+        cache.get(edited);
+        cache.refresh();
+
+        final String auth = server.takeRequest().getHeader("Authorization");
+        assertEquals(JiraCompiledConfig.of(edited).authHeaders().get("Authorization"), auth);
+    }
+
+    private JiraEventNotificationConfig config(final String priority, final String components,
+                                               final String graylogHashField) {
+        return config(priority, components, graylogHashField, "pwd");
+    }
+
+    private JiraEventNotificationConfig config(final String priority, final String components,
+                                               final String graylogHashField, final String password) {
+        return JiraEventNotificationConfig.builder()
+                .jiraURL(server.url("/").toString())
+                .credUsername("user")
+                .credPassword(password)
+                .projectKey("GRAYLOG")
+                .issueType("bug")
+                .issuePriority(priority)
+                .issueComponents(components)
+                .issueCustomFields("Team=core")
+                .searchGraylogHashField(graylogHashField)
+                .build();
+    }
+}
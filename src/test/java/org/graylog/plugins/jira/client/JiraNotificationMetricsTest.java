@@ -0,0 +1,90 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraNotificationMetricsTest {
+
+    private static final String PREFIX = "org.graylog.plugins.jira.client.JiraNotificationMetrics.";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final JiraNotificationMetrics metrics = new JiraNotificationMetrics(metricRegistry);
+
+    @Test
+    void forNotification_namesMetricsByNotification() {
+        final JiraNotificationMetrics.Notification notification = metrics.forNotification("n1");
+        notification.created.inc();
+
+        assertSame(notification, metrics.forNotification("n1"));
+        assertEquals(1, metricRegistry.counter(PREFIX + "n1.created").getCount());
+        assertTrue(metricRegistry.getTimers().containsKey(PREFIX + "n1.issue-create"));
+        assertTrue(metricRegistry.getHistograms().containsKey(PREFIX + "n1.payload-bytes"));
+    }
+
+    @Test
+    void failure_countsByStatusClass() {
+        final JiraNotificationMetrics.Notification notification = metrics.forNotification("n1");
+        notification.failure(429);
+        notification.failure(400);
+        notification.failure(503);
+        notification.failure(0);
+
+        assertEquals(2, metricRegistry.counter(PREFIX + "n1.failures.4xx").getCount());
+        assertEquals(1, metricRegistry.counter(PREFIX + "n1.failures.5xx").getCount());
+        assertEquals(1, metricRegistry.counter(PREFIX + "n1.failures.io").getCount());
+    }
+
+    @Test
+    void forNotification_removesMetricsOfUnusedNotifications() {
+        final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        final JiraNotificationMetrics expiring = new JiraNotificationMetrics(metricRegistry, clock);
+        expiring.forNotification("n1").failure(503);
+        expiring.forNotification("n2");
+
+        // n2 is used now and then, n1 no longer
+        clock.now = clock.now.plus(JiraNotificationMetrics.EXPIRE_AFTER).minusSeconds(60);
+        expiring.forNotification("n2");
+        clock.now = clock.now.plus(JiraNotificationMetrics.SWEEP_INTERVAL).plusSeconds(1);
+        expiring.forNotification("n2");
+
+        assertFalse(metricRegistry.getNames().stream().anyMatch(name -> name.startsWith(PREFIX + "n1.")));
+        assertTrue(metricRegistry.getTimers().containsKey(PREFIX + "n2.issue-create"));
+
+        // used again, e.g. by an event the notification was late for
+        expiring.forNotification("n1");
+        assertTrue(metricRegistry.getTimers().containsKey(PREFIX + "n1.issue-create"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
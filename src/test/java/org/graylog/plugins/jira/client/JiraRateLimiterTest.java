@@ -0,0 +1,42 @@
+package org.graylog.plugins.jira.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JiraRateLimiterTest {
+
+    private static final HttpUrl JIRA = HttpUrl.get("https://jira.example.com/rest/api/2/issue");
+    private static final HttpUrl OTHER_JIRA = HttpUrl.get("https://other.example.com/rest/api/2/issue");
+
+    private final AtomicLong now = new AtomicLong();
+    private final JiraRateLimiter limiter = new JiraRateLimiter(2, 2, Duration.seconds(1),
+            new MetricRegistry(), now::get);
+
+    @Test
+    void reserve_allowsBurstThenSpacesRequests() {
+        assertEquals(0, limiter.reserve(JIRA));
+        assertEquals(0, limiter.reserve(JIRA));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.reserve(JIRA));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), limiter.reserve(JIRA));
+        assertEquals(-1, limiter.reserve(JIRA));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, limiter.reserve(JIRA));
+    }
+
+    @Test
+    void reserve_keepsBucketPerJiraInstance() {
+        limiter.reserve(JIRA);
+        limiter.reserve(JIRA);
+
+        assertEquals(0, limiter.reserve(OTHER_JIRA));
+    }
+}
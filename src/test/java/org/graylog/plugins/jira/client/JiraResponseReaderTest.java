@@ -0,0 +1,61 @@
+package org.graylog.plugins.jira.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.ResponseBody;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraResponseReaderTest {
+
+    @Test
+    void firstIssueId_skipsOtherFieldsAndStopsAtFirstIssue() throws IOException {
+        // anything after the first issue id is not read, not even the broken rest
+        final InputStream in = stream("{\"expand\":\"names\",\"names\":{\"a\":[1,{\"id\":\"0\"}]},"
+                + "\"issues\":[{\"expand\":\"\",\"fields\":{\"id\":\"0\"},\"id\":\"10001\",\"key\":\"G-1\"},{\"id\":");
+
+        assertEquals("10001", JiraResponseReader.firstIssueId(in));
+    }
+
+    @Test
+    void firstIssueId_returnsNullWithoutIssues() throws IOException {
+        assertNull(JiraResponseReader.firstIssueId(stream("{\"total\":0,\"issues\":[]}")));
+        assertNull(JiraResponseReader.firstIssueId(stream("{\"total\":0}")));
+    }
+
+    @Test
+    void id_readsTopLevelId() throws IOException {
+        assertEquals("10002", JiraResponseReader.id(stream("{\"fields\":{\"id\":\"1\"},\"id\":\"10002\"}")));
+        assertNull(JiraResponseReader.id(stream("{}")));
+    }
+
+    @Test
+    void issueField_readsFieldValue() throws IOException {
+        final String body = "{\"id\":\"10001\",\"fields\":{\"summary\":{\"a\":1},\"customfield_1\":42.0}}";
+
+        assertEquals(42, JiraResponseReader.issueField(stream(body), "customfield_1").asLong(0));
+        assertTrue(JiraResponseReader.issueField(stream(body), "customfield_2").isMissingNode());
+    }
+
+    @Test
+    void errorBody_cutsLongBody() throws IOException {
+        final String page = "<html>" + "x".repeat(JiraResponseReader.MAX_ERROR_BODY_BYTES * 4) + "</html>";
+
+        final String errorBody = JiraResponseReader.errorBody(ResponseBody.create(page, null));
+
+        assertEquals(JiraResponseReader.MAX_ERROR_BODY_BYTES + "... (truncated)".length(), errorBody.length());
+        assertEquals("{\"errorMessages\":[]}",
+                JiraResponseReader.errorBody(ResponseBody.create("{\"errorMessages\":[]}", null)));
+    }
+
+    private static InputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
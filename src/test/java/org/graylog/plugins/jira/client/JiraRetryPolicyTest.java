@@ -0,0 +1,124 @@
+package org.graylog.plugins.jira.client;
+
+import com.github.joschi.jadconfig.util.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraRetryPolicyTest {
+
+    private final List<Long> sleeps = new ArrayList<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final JiraRetryPolicy policy = new JiraRetryPolicy(3, Duration.milliseconds(100),
+            Duration.seconds(1), Duration.minutes(1), sleeps::add);
+
+    @Test
+    void call_retriesTransientFailure() {
+        final String result = policy.call("test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw JiraClientException.forStatus("busy", 503, null);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, sleeps.size());
+        assertTrue(sleeps.get(0) <= 100 && sleeps.get(1) <= 200);
+    }
+
+    @Test
+    void call_honoursRetryAfter() {
+        policy.call("test", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw JiraClientException.forStatus("throttled", 429, "2");
+            }
+            return "ok";
+        });
+
+        assertEquals(List.of(2000L), sleeps);
+    }
+
+    @Test
+    void call_doesNotRetryPermanentFailure() {
+        assertThrows(JiraClientException.class, () -> policy.call("test", () -> {
+            calls.incrementAndGet();
+            throw JiraClientException.forStatus("bad request", 400, null);
+        }));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void call_givesUpAfterMaxAttempts() {
+        assertThrows(JiraClientException.class, () -> policy.call("test", () -> {
+            calls.incrementAndGet();
+            throw JiraClientException.transientFailure("timeout", null);
+        }));
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void call_givesUpWhenRetryAfterExceedsMaxElapsed() {
+        assertThrows(JiraClientException.class, () -> policy.call("test", () -> {
+            calls.incrementAndGet();
+            throw JiraClientException.forStatus("throttled", 429, "3600");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void callOnce_retriesOnlyRequestsNotCarriedOut() {
+        final String result = policy.callOnce("test", () -> {
+            switch (calls.incrementAndGet()) {
+                case 1 -> throw JiraClientException.forIOException("refused", new ConnectException());
+                case 2 -> throw JiraClientException.forStatus("busy", 503, null);
+                default -> {
+                    return "ok";
+                }
+            }
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void callOnce_doesNotRetryRequestsMaybeCarriedOut() {
+        final JiraClientException timeout = assertThrows(JiraClientException.class, () -> policy.callOnce("test", () -> {
+            calls.incrementAndGet();
+            throw JiraClientException.forIOException("timeout", new SocketTimeoutException());
+        }));
+        final JiraClientException serverError = assertThrows(JiraClientException.class, () -> policy.callOnce("test",
+                () -> {
+                    calls.incrementAndGet();
+                    throw JiraClientException.forStatus("failed", 500, null);
+                }));
+
+        assertEquals(2, calls.get());
+        assertTrue(timeout.isTransient() && timeout.isMaybeProcessed());
+        assertTrue(serverError.isTransient() && serverError.isMaybeProcessed());
+    }
+
+    @Test
+    void parseRetryAfter_acceptsSecondsAndHttpDate() {
+        final Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+        assertEquals(5000, JiraClientException.parseRetryAfter("5", clock));
+        assertEquals(30000, JiraClientException.parseRetryAfter("Mon, 1 Jan 2024 00:00:30 GMT", clock));
+        assertEquals(-1, JiraClientException.parseRetryAfter("soon", clock));
+        assertEquals(-1, JiraClientException.parseRetryAfter(null, clock));
+    }
+}
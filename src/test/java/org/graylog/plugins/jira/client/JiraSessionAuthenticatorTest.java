@@ -0,0 +1,117 @@
+package org.graylog.plugins.jira.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JiraSessionAuthenticatorTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private OkHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        final JiraSessionAuthenticator authenticator =
+                new JiraSessionAuthenticator(server.url("/rest/auth/1/session"), "user", "pwd");
+        client = new OkHttpClient.Builder()
+                .cookieJar(authenticator)
+                .addInterceptor(authenticator)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void intercept_logsInOnceAndSendsSessionCookie() throws Exception {
+        server.enqueue(login("s1"));
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        assertEquals(200, get());
+        assertEquals(200, get());
+
+        final RecordedRequest login = server.takeRequest();
+        assertEquals("/rest/auth/1/session", login.getPath());
+        assertEquals("{\"username\":\"user\",\"password\":\"pwd\"}".length(), login.getBodySize());
+        for (int i = 0; i < 2; i++) {
+            final RecordedRequest request = server.takeRequest();
+            assertEquals("JSESSIONID=s1", request.getHeader("Cookie"));
+            assertNull(request.getHeader("Authorization"));
+        }
+    }
+
+    @Test
+    void intercept_logsInAgainWhenSessionExpired() throws Exception {
+        server.enqueue(login("s1"));
+        server.enqueue(new MockResponse().setResponseCode(401));
+        server.enqueue(login("s2"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        assertEquals(200, get());
+
+        server.takeRequest();
+        assertEquals("JSESSIONID=s1", server.takeRequest().getHeader("Cookie"));
+        assertEquals("/rest/auth/1/session", server.takeRequest().getPath());
+        assertEquals("JSESSIONID=s2", server.takeRequest().getHeader("Cookie"));
+    }
+
+    @Test
+    void intercept_returnsFailedLogin() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(401));
+
+        assertEquals(401, get());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void intercept_returnsFailedLoginAfterSessionExpired() throws Exception {
+        server.enqueue(login("s1"));
+        server.enqueue(new MockResponse().setResponseCode(401));
+        server.enqueue(new MockResponse().setResponseCode(401));
+        server.enqueue(new MockResponse().setResponseCode(401));
+        server.enqueue(login("s2"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        assertEquals(401, get());
+        assertEquals(3, server.getRequestCount());
+        server.takeRequest();
+        server.takeRequest();
+        assertEquals("/rest/auth/1/session", server.takeRequest().getPath());
+
+        // the next request logs in once more
+        assertEquals(200, get());
+        assertEquals(6, server.getRequestCount());
+        server.takeRequest();
+        assertEquals("/rest/auth/1/session", server.takeRequest().getPath());
+        assertEquals("JSESSIONID=s2", server.takeRequest().getHeader("Cookie"));
+    }
+
+    private int get() throws IOException {
+        try (Response res = client.newCall(new Request.Builder().url(server.url("/rest/api/2/search")).build())
+                .execute()) {
+            return res.code();
+        }
+    }
+
+    private static MockResponse login(final String session) {
+        return new MockResponse()
+                .addHeader("Set-Cookie", "JSESSIONID=" + session + "; Path=/")
+                .setBody("{\"session\":{\"name\":\"JSESSIONID\",\"value\":\"" + session + "\"}}");
+    }
+}
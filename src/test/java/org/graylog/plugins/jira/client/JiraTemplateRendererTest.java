@@ -0,0 +1,117 @@
+package org.graylog.plugins.jira.client;
+
+import com.floreysoft.jmte.Engine;
+import org.graylog.plugins.jira.event.notifications.JiraEventNotificationConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraTemplateRendererTest {
+
+    private final Engine engine = new Engine();
+    private final JiraTemplateRenderer renderer = new JiraTemplateRenderer(engine);
+
+    @Test
+    void render_matchesEngineTransform() {
+        final Map<String, Object> model = new HashMap<>();
+        model.put("event_definition_id", "abc");
+        model.put("event_definition_title", "Title");
+        model.put("event", Map.of("message", "first\r\nsecond\rthird", "source", "host"));
+        model.put("backlog", List.of(Map.of("message", "backlog message", "source", "host")));
+
+        final String template = "*ID:* ${event_definition_id}\r\n*Title:* ${event_definition_title}\n"
+                + "*Message:* ${event.message}\n${foreach backlog message}${message.source}: ${message.message}\n${end}";
+        final String expected = engine.transform(template, model).replaceAll("\\r\\n|\\n|\\r", "\n");
+
+        assertEquals(expected, renderer.render(template, model));
+        assertEquals(expected, renderer.render(template, model));
+    }
+
+    @Test
+    void render_normalizesTemplateLineBreaks() {
+        assertEquals("a\nb\nc", renderer.render("a\r\n${x}\rc", Map.of("x", "b")));
+    }
+
+    @Test
+    void render_stopsAddingBacklogAtMaxLength() {
+        final List<Map<String, Object>> backlog = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            backlog.add(Map.of("message", "message number " + i));
+        }
+        final Map<String, Object> model = Map.of("backlog", backlog);
+        final String template = "Messages:\n${foreach backlog message}${message.message}\n${end}End";
+
+        final String output = renderer.render(template, model, 1000);
+
+        assertTrue(output.length() <= 1000, "length " + output.length());
+        assertTrue(output.startsWith("Messages:\nmessage number 0\n"));
+        assertTrue(output.contains("\nEnd\n_"));
+        final int rendered = output.split("message number ", -1).length - 1;
+        assertTrue(rendered > 40, "rendered " + rendered);
+        assertTrue(output.endsWith("_" + (1000 - rendered) + " more messages omitted_"));
+    }
+
+    @Test
+    void render_keepsOutputWithinMaxLength() {
+        final Map<String, Object> model = Map.of("backlog", List.of(Map.of("message", "x".repeat(5000))));
+
+        assertEquals(100, renderer.render("${foreach backlog message}${message.message}${end}", model, 100).length());
+        assertEquals(5000, renderer.render("${foreach backlog message}${message.message}${end}", model, 0).length());
+    }
+
+    @Test
+    void render_expectsMessagesOfAverageLengthFromTheFirstOne() {
+        final Map<String, Object> model = Map.of("backlog", Collections.nCopies(5, Map.of("message", "x".repeat(400))));
+
+        final String output = renderer.render("${foreach backlog message}${message.message}${end}", model, 1064);
+
+        assertEquals(800, output.indexOf('\n'), output);
+        assertTrue(output.endsWith("_3 more messages omitted_"), output);
+    }
+
+    @Test
+    void render_cutsOutputBetweenCodePoints() {
+        final String emoji = "\uD83D\uDE00";
+        final Map<String, Object> model = Map.of("text", emoji.repeat(100));
+
+        final String output = renderer.render("${text}", model, 51);
+
+        assertEquals(emoji.repeat(18) + "\n_(truncated)_", output);
+    }
+
+    @Test
+    void render_defaultDescription() {
+        final Map<String, Object> model = new HashMap<>();
+        model.put("event", Map.of("message", "event message", "fields", Map.of("field", "value")));
+        model.put("backlog", List.of(Map.of("id", "1", "index", "graylog_0")));
+        model.put("graylog_url", "https://graylog.example.com");
+
+        final String output = renderer.render(JiraEventNotificationConfig.DEFAULT_ISSUE_DESCRIPTION, model);
+
+        assertTrue(output.contains("*Message:* event message"), output);
+        assertTrue(output.contains("field: value"), output);
+        assertTrue(output.contains("Graylog link: https://graylog.example.com/messages/graylog_0/1"), output);
+    }
+
+    @Test
+    void render_defaultDescriptionWithoutEventFields() {
+        final Map<String, Object> model = new HashMap<>();
+        model.put("event", Map.of("message", "event message"));
+        model.put("backlog", List.of(Map.of("id", "1", "index", "graylog_0")));
+        model.put("graylog_url", "https://graylog.example.com");
+
+        final String output = renderer.render(JiraEventNotificationConfig.DEFAULT_ISSUE_DESCRIPTION, model);
+
+        assertFalse(output.contains("*Fields:*"), output);
+        assertTrue(output.contains("Graylog link: https://graylog.example.com/messages/graylog_0/1"), output);
+        assertFalse(output.endsWith("\""), output);
+    }
+}
@@ -0,0 +1,173 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import org.graylog.plugins.jira.client.JiraClient;
+import org.graylog.plugins.jira.client.JiraClientException;
+import org.graylog.plugins.jira.client.JiraIssue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraEventCoalescerTest {
+
+    private final List<Map<String, Object>> sent = new ArrayList<>();
+    private final List<JiraIssue> sentIssues = new ArrayList<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger rendered = new AtomicInteger();
+
+    private final JiraClient jiraClient = new JiraClient(null, null, null, null, null, null, null, null, null, null, null) {
+        @Override
+        public String prepareSummary(final String notificationId, final JiraEventNotificationConfig config,
+                                     final Map<String, Object> model) {
+            return (String) model.get("description");
+        }
+
+        @Override
+        public JiraIssue prepareIssue(final String notificationId, final JiraEventNotificationConfig config,
+                                      final Map<String, Object> model) {
+            rendered.incrementAndGet();
+            final Object count = model.getOrDefault(JiraClient.MODEL_OCCURRENCE_COUNT, "");
+            return new JiraIssue("GRAYLOG", "summary", model.get("description") + " " + count, "bug", "", "",
+                    new HashSet<>(), new HashSet<>(), "", config.searchGraylogHashField(), null, new HashMap<>());
+        }
+
+        @Override
+        public void createIssue(final String notificationId, final JiraEventNotificationConfig config,
+                                final JiraIssue jiraIssue, final Map<String, Object> model,
+                                final Instant occurredAt) {
+            if (failures.getAndDecrement() > 0) {
+                throw JiraClientException.forStatus("busy", 503, null);
+            }
+            sent.add(model);
+            sentIssues.add(jiraIssue);
+        }
+    };
+
+    private final JiraEventNotificationConfig config = JiraEventNotificationConfig.builder()
+            .jiraURL("https://jira.example.com")
+            .credUsername("user")
+            .credPassword("pwd")
+            .projectKey("GRAYLOG")
+            .issueType("Bug")
+            .coalesceWindowSeconds(60)
+            .build();
+
+    @Test
+    void add_coalescesSameHashIntoOneWrite() {
+        final JiraEventCoalescer coalescer = new JiraEventCoalescer(jiraClient);
+        coalescer.startAsync().awaitRunning();
+
+        coalescer.add("n1", config, model("same", "m1"), Instant.parse("2025-01-01T00:00:00Z"));
+        coalescer.add("n1", config, model("same", "m2"), Instant.parse("2025-01-01T00:00:20Z"));
+        coalescer.add("n1", config, model("same", "m3"), Instant.parse("2025-01-01T00:00:10Z"));
+        coalescer.add("n1", config, model("other", "m4"), Instant.parse("2025-01-01T00:00:05Z"));
+        coalescer.stopAsync().awaitTerminated();
+
+        assertEquals(2, sent.size());
+        final Map<String, Object> coalesced = sent.stream()
+                .filter(m -> "same".equals(m.get("description")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, coalesced.get(JiraClient.MODEL_OCCURRENCE_COUNT));
+        assertEquals("2025-01-01T00:00:00Z", coalesced.get(JiraClient.MODEL_FIRST_OCCURRENCE));
+        assertEquals("2025-01-01T00:00:20Z", coalesced.get(JiraClient.MODEL_LAST_OCCURRENCE));
+        assertEquals(List.of("m1", "m2", "m3"), coalesced.get("backlog"));
+    }
+
+    @Test
+    void add_rendersDescriptionOnlyOnFlush() {
+        final JiraEventNotificationConfig hashConfig = JiraEventNotificationConfig.builder()
+                .jiraURL("https://jira.example.com")
+                .credUsername("user")
+                .credPassword("pwd")
+                .projectKey("GRAYLOG")
+                .issueType("Bug")
+                .searchGraylogHashField("customfield_123")
+                .coalesceWindowSeconds(60)
+                .build();
+        final JiraEventCoalescer coalescer = new JiraEventCoalescer(jiraClient);
+        coalescer.startAsync().awaitRunning();
+
+        coalescer.add("n1", hashConfig, model("same", "m1"), Instant.parse("2025-01-01T00:00:00Z"));
+        coalescer.add("n1", hashConfig, model("same", "m2"), Instant.parse("2025-01-01T00:00:10Z"));
+        coalescer.add("n1", hashConfig, model("same", "m3"), Instant.parse("2025-01-01T00:00:20Z"));
+        assertEquals(0, rendered.get());
+        coalescer.stopAsync().awaitTerminated();
+
+        // the window and its first event, whose hash the issue keeps
+        assertEquals(2, rendered.get());
+        assertEquals(1, sentIssues.size());
+        assertTrue(sentIssues.get(0).toJsonString().contains("same 3"));
+        final JiraIssue firstEvent = jiraClient.prepareIssue("n1", hashConfig, model("same", "m1"));
+        assertEquals(firstEvent.createGraylogHash(), sentIssues.get(0).createGraylogHash());
+    }
+
+    @Test
+    void add_keepsEventsWithOtherEventKeyApart() {
+        final JiraEventCoalescer coalescer = new JiraEventCoalescer(jiraClient);
+        coalescer.startAsync().awaitRunning();
+        final Map<String, Object> first = model("same", "m1");
+        first.put("event", Map.of("key", "host-a"));
+        final Map<String, Object> second = model("same", "m2");
+        second.put("event", Map.of("key", "host-b"));
+
+        coalescer.add("n1", config, first, Instant.parse("2025-01-01T00:00:00Z"));
+        coalescer.add("n1", config, second, Instant.parse("2025-01-01T00:00:10Z"));
+        coalescer.stopAsync().awaitTerminated();
+
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void flush_reopensWindowOnTransientFailure() {
+        final JiraEventCoalescer coalescer = new JiraEventCoalescer(jiraClient);
+        coalescer.startAsync().awaitRunning();
+        failures.set(1);
+
+        coalescer.add("n1", config, model("same", "m1"), Instant.parse("2025-01-01T00:00:00Z"));
+        coalescer.add("n1", config, model("same", "m2"), Instant.parse("2025-01-01T00:00:10Z"));
+        coalescer.flushAll();
+        coalescer.add("n1", config, model("same", "m3"), Instant.parse("2025-01-01T00:01:30Z"));
+        coalescer.stopAsync().awaitTerminated();
+
+        assertEquals(1, sent.size());
+        assertEquals(3, sent.get(0).get(JiraClient.MODEL_OCCURRENCE_COUNT));
+        assertEquals("2025-01-01T00:00:00Z", sent.get(0).get(JiraClient.MODEL_FIRST_OCCURRENCE));
+        assertEquals("2025-01-01T00:01:30Z", sent.get(0).get(JiraClient.MODEL_LAST_OCCURRENCE));
+        assertEquals(List.of("m1", "m2", "m3"), sent.get(0).get("backlog"));
+    }
+
+    @Test
+    void flush_keepsModelLazy() {
+        final JiraEventCoalescer coalescer = new JiraEventCoalescer(jiraClient);
+        coalescer.startAsync().awaitRunning();
+        final Map<String, Object> lazy = new HashMap<>(model("same", "m1")) {
+            @Override
+            public Set<Entry<String, Object>> entrySet() {
+                throw new AssertionError("model was copied");
+            }
+        };
+
+        coalescer.add("n1", config, lazy, Instant.parse("2025-01-01T00:00:00Z"));
+        coalescer.stopAsync().awaitTerminated();
+
+        assertEquals(1, sent.size());
+        assertEquals("same", sent.get(0).get("description"));
+    }
+
+    private Map<String, Object> model(final String description, final String message) {
+        final Map<String, Object> model = new HashMap<>();
+        model.put("description", description);
+        model.put("backlog", List.of(message));
+        return model;
+    }
+}
@@ -0,0 +1,166 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.joschi.jadconfig.util.Duration;
+import org.graylog.events.notifications.TemporaryEventNotificationException;
+import org.graylog.plugins.jira.client.JiraClientException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraNotificationDispatcherTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch workerBusy = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void dispatch_dropOldestKeepsNewest() throws Exception {
+        final JiraNotificationDispatcher dispatcher = start("drop_oldest");
+        occupyWorker(dispatcher);
+
+        dispatcher.dispatch(() -> sent.add("first"));
+        dispatcher.dispatch(() -> sent.add("second"));
+        release.countDown();
+        dispatcher.stopAsync().awaitTerminated();
+
+        assertEquals(List.of("busy", "second"), sent);
+        assertEquals(1, metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "dropped")).getCount());
+    }
+
+    @Test
+    void dispatch_spillAsksForRetry() throws Exception {
+        final JiraNotificationDispatcher dispatcher = start("spill");
+        occupyWorker(dispatcher);
+
+        dispatcher.dispatch(() -> sent.add("first"));
+        assertThrows(TemporaryEventNotificationException.class, () -> dispatcher.dispatch(() -> sent.add("second")));
+        release.countDown();
+        dispatcher.stopAsync().awaitTerminated();
+
+        assertEquals(List.of("busy", "first"), sent);
+    }
+
+    @Test
+    void dispatch_rejectsAfterShutdown() {
+        final JiraNotificationDispatcher dispatcher = start("block");
+        dispatcher.stopAsync().awaitTerminated();
+
+        assertThrows(TemporaryEventNotificationException.class, () -> dispatcher.dispatch(() -> sent.add("late")));
+    }
+
+    @Test
+    void dispatch_requeuesTransientFailures() throws Exception {
+        final JiraNotificationDispatcher dispatcher = startWithRetries();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.dispatch(() -> {
+            sent.add("attempt");
+            if (sent.size() < 3) {
+                throw JiraClientException.forStatus("busy", 503, null);
+            }
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        dispatcher.stopAsync().awaitTerminated();
+        assertEquals(3, sent.size());
+        assertEquals(2, metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "retried")).getCount());
+    }
+
+    @Test
+    void dispatch_givesUpOnPermanentFailureAndAfterMaxAttempts() throws Exception {
+        final JiraNotificationDispatcher dispatcher = startWithRetries();
+
+        dispatcher.dispatch(() -> {
+            sent.add("permanent");
+            throw JiraClientException.forStatus("bad request", 400, null);
+        });
+        dispatcher.dispatch(() -> {
+            sent.add("transient");
+            throw JiraClientException.forStatus("busy", 503, null);
+        });
+
+        final Counter failed = metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "failed"));
+        for (int i = 0; i < 100 && failed.getCount() < 2; i++) {
+            Thread.sleep(50);
+        }
+        dispatcher.stopAsync().awaitTerminated();
+        assertEquals(2, failed.getCount());
+        assertEquals(List.of("permanent", "transient", "transient", "transient"), sent);
+    }
+
+    @Test
+    void shutDown_sendsWorkWaitingForRetry() throws Exception {
+        // retried after a minute, unless shut down before
+        final JiraNotificationDispatcher dispatcher = new JiraNotificationDispatcher(true, 10, 1, "block",
+                Duration.seconds(1), Duration.seconds(5), 3, Duration.minutes(1), metricRegistry);
+        dispatcher.startAsync().awaitRunning();
+        dispatcher.dispatch(() -> {
+            sent.add("attempt");
+            if (sent.size() == 1) {
+                throw JiraClientException.forStatus("busy", 503, null);
+            }
+        });
+        final Counter retried = metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "retried"));
+        for (int i = 0; i < 100 && retried.getCount() < 1; i++) {
+            Thread.sleep(50);
+        }
+
+        dispatcher.stopAsync().awaitTerminated();
+
+        assertEquals(List.of("attempt", "attempt"), sent);
+        assertEquals(0, metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "failed")).getCount());
+        assertEquals(0, metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "dropped")).getCount());
+    }
+
+    @Test
+    void shutDown_countsWorkNotDrainedInTime() throws Exception {
+        final JiraNotificationDispatcher dispatcher = new JiraNotificationDispatcher(true, 10, 1, "block",
+                Duration.seconds(1), Duration.milliseconds(100), 3, Duration.minutes(1), metricRegistry);
+        dispatcher.startAsync().awaitRunning();
+        occupyWorker(dispatcher);
+        dispatcher.dispatch(() -> sent.add("queued"));
+
+        dispatcher.stopAsync().awaitTerminated();
+
+        assertEquals(List.of("busy"), sent);
+        assertEquals(1, metricRegistry.counter(MetricRegistry.name(JiraNotificationDispatcher.class, "dropped")).getCount());
+    }
+
+    private JiraNotificationDispatcher start(final String overflowPolicy) {
+        final JiraNotificationDispatcher dispatcher = new JiraNotificationDispatcher(true, 1, 1, overflowPolicy,
+                Duration.milliseconds(10), Duration.seconds(5), 3, Duration.milliseconds(10), metricRegistry);
+        dispatcher.startAsync().awaitRunning();
+        return dispatcher;
+    }
+
+    private JiraNotificationDispatcher startWithRetries() {
+        final JiraNotificationDispatcher dispatcher = new JiraNotificationDispatcher(true, 10, 1, "block",
+                Duration.seconds(1), Duration.seconds(5), 3, Duration.milliseconds(10), metricRegistry);
+        dispatcher.startAsync().awaitRunning();
+        return dispatcher;
+    }
+
+    private void occupyWorker(final JiraNotificationDispatcher dispatcher) throws Exception {
+        dispatcher.dispatch(() -> {
+            sent.add("busy");
+            workerBusy.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        workerBusy.await();
+    }
+}
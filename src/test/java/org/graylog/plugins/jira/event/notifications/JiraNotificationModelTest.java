@@ -0,0 +1,87 @@
+package org.graylog.plugins.jira.event.notifications;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JiraNotificationModelTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void model_hasModelDataEntries() {
+        final JiraNotificationModel model = new JiraNotificationModel(Optional.empty(), Optional.empty(), null,
+                backlog(2), objectMapper);
+
+        assertEquals(Set.of("event_definition_id", "event_definition_type", "event_definition_title",
+                "event_definition_description", "job_definition_id", "job_trigger_id", "event", "backlog"),
+                model.keySet());
+        assertEquals("<unknown>", model.get("job_trigger_id"));
+        assertEquals(List.of(Map.of("message", "message 0", "source", "host"),
+                Map.of("message", "message 1", "source", "host")), model.get("backlog"));
+    }
+
+    @Test
+    void model_convertsOnlyReadBacklogMessages() {
+        final CountingObjectMapper counting = new CountingObjectMapper();
+        final JiraNotificationModel model = new JiraNotificationModel(Optional.empty(), Optional.empty(), null,
+                backlog(100), counting);
+
+        assertEquals("<unknown>", model.get("event_definition_title"));
+        assertEquals(0, counting.conversions);
+
+        final List<?> messages = assertInstanceOf(List.class, model.get("backlog"));
+        assertEquals(100, messages.size());
+        assertEquals(0, counting.conversions);
+
+        assertTrue(((Map<?, ?>) messages.get(5)).containsKey("message"));
+        messages.get(5);
+        assertEquals(1, counting.conversions);
+        assertFalse(model.isEmpty());
+    }
+
+    @Test
+    void model_keepsPutValues() {
+        final JiraNotificationModel model = new JiraNotificationModel(Optional.empty(), Optional.empty(), null,
+                backlog(1), objectMapper);
+
+        model.put("graylog_url", "http://graylog");
+        model.put("backlog", List.of());
+
+        assertEquals("http://graylog", model.get("graylog_url"));
+        assertEquals(List.of(), model.get("backlog"));
+    }
+
+    private List<Message> backlog(final int size) {
+        final List<Message> backlog = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            backlog.add(new Message("message " + i, "host"));
+        }
+        return backlog;
+    }
+
+    // stands in for MessageSummary, which needs a server Message
+    private record Message(String message, String source) {
+    }
+
+    private static class CountingObjectMapper extends ObjectMapper {
+        private int conversions;
+
+        @Override
+        public <T> T convertValue(final Object fromValue,
+                                  final com.fasterxml.jackson.core.type.TypeReference<T> toValueTypeRef) {
+            conversions++;
+            return super.convertValue(fromValue, toValueTypeRef);
+        }
+    }
+}
@@ -14,6 +14,9 @@ const JiraNotificationDetails = ({ notification }) => {
       { notification.config.graylog_url
         ? <ReadOnlyFormGroup label="Graylog URL" value={notification.config.graylog_url} />
         : null}
+      { notification.config.auth_type
+        ? <ReadOnlyFormGroup label="Authentication" value={notification.config.auth_type} />
+        : null}
       { notification.config.cred_username
         ? <ReadOnlyFormGroup label="Credentials - username" value={notification.config.cred_username} />
         : null}
@@ -50,18 +53,42 @@ const JiraNotificationDetails = ({ notification }) => {
       { notification.config.issue_description
         ? <ReadOnlyFormGroup label="JIRA Issue description" value={notification.config.issue_description} />
         : null}
+      { notification.config.description_max_length
+        ? <ReadOnlyFormGroup label="JIRA Issue description maximum length" value={notification.config.description_max_length} />
+        : null}
+      { notification.config.backlog_attachment
+        ? <ReadOnlyFormGroup label="Attach backlog as file" value={notification.config.backlog_attachment} />
+        : null}
       { notification.config.search_graylog_hash_field
         ? <ReadOnlyFormGroup label="Search for duplicate issues custom field" value={notification.config.search_graylog_hash_field} />
         : null}
       { notification.config.search_graylog_hash_regex
         ? <ReadOnlyFormGroup label="Search for duplicate issues description regex" value={notification.config.search_graylog_hash_regex} />
         : null}
+      { notification.config.graylog_hash_algorithm
+        ? <ReadOnlyFormGroup label="Graylog hash algorithm" value={notification.config.graylog_hash_algorithm} />
+        : null}
       { notification.config.search_filter_jql
         ? <ReadOnlyFormGroup label="Search filter JQL - duplicate filter" value={notification.config.search_filter_jql} />
         : null}
       { notification.config.duplicate_issue_comment
         ? <ReadOnlyFormGroup label="Comment inserted in duplicate found issue" value={notification.config.duplicate_issue_comment} />
         : null}
+      { notification.config.coalesce_window_seconds
+        ? <ReadOnlyFormGroup label="Coalesce window (seconds)" value={notification.config.coalesce_window_seconds} />
+        : null}
+      { notification.config.duplicate_mode
+        ? <ReadOnlyFormGroup label="Duplicate handling" value={notification.config.duplicate_mode} />
+        : null}
+      { notification.config.duplicate_flush_seconds
+        ? <ReadOnlyFormGroup label="Duplicate flush interval (seconds)" value={notification.config.duplicate_flush_seconds} />
+        : null}
+      { notification.config.occurrence_count_field
+        ? <ReadOnlyFormGroup label="Occurrence count custom field" value={notification.config.occurrence_count_field} />
+        : null}
+      { notification.config.last_seen_field
+        ? <ReadOnlyFormGroup label="Last seen custom field" value={notification.config.last_seen_field} />
+        : null}
     </>
   );
 };
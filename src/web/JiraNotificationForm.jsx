@@ -1,7 +1,7 @@
 import React from "react";
 import PropTypes from "prop-types";
 import lodash from "lodash";
-import { FormGroup, ControlLabel, FormControl, HelpBlock } from "react-bootstrap";
+import { Checkbox, FormGroup, ControlLabel, FormControl, HelpBlock } from "react-bootstrap";
 
 class JiraNotificationForm extends React.Component {
   static propTypes = {
@@ -21,6 +21,14 @@ class JiraNotificationForm extends React.Component {
     this.propagateChange(event.target.name, event.target.value);
   };
 
+  handleNumberChange = event => {
+    this.propagateChange(event.target.name, Number(event.target.value));
+  };
+
+  handleCheckboxChange = event => {
+    this.propagateChange(event.target.name, event.target.checked);
+  };
+
   getValidationState = (validationErrors, fieldId) => {
     if (validationErrors.includes(fieldId)) {
       return "error";
@@ -80,6 +88,23 @@ class JiraNotificationForm extends React.Component {
         </FormGroup>
 
         <h3>Credentials</h3>
+        <FormGroup
+          controlId="notification-auth-type"
+          validationState={this.getValidationState(validationErrors, "auth_type")}
+        >
+          <ControlLabel>Authentication</ControlLabel>
+          <FormControl
+            name="auth_type"
+            componentClass="select"
+            value={config.auth_type || "BASIC"}
+            onChange={this.handleChange}
+          >
+            <option value="BASIC">BASIC</option>
+            <option value="BEARER">BEARER</option>
+            <option value="SESSION">SESSION</option>
+          </FormControl>
+          <HelpBlock>BASIC sends username and password with every request. BEARER sends a personal access token (filled in as password, username is not needed). SESSION logs in once and reuses the session cookie</HelpBlock>
+        </FormGroup>
         <FormGroup
           controlId="notification-cred-username"
           validationState={this.getValidationState(validationErrors, "cred_username")}
@@ -90,14 +115,14 @@ class JiraNotificationForm extends React.Component {
             type="text"
             value={config.cred_username || ""}
             onChange={this.handleChange}
-            required
+            required={config.auth_type !== "BEARER"}
           />
         </FormGroup>
         <FormGroup
           controlId="notification-cred-password"
           validationState={this.getValidationState(validationErrors, "cred_password")}
         >
-          <ControlLabel>Credentials - password</ControlLabel>
+          <ControlLabel>Credentials - password or personal access token</ControlLabel>
           <FormControl
             name="cred_password"
             type="password"
@@ -243,6 +268,30 @@ class JiraNotificationForm extends React.Component {
           />
           <HelpBlock>Issue description - event and message data is accessible, basic Markdown is supported</HelpBlock>
         </FormGroup>
+        <FormGroup
+          controlId="notification-description-max-length"
+          validationState={this.getValidationState(validationErrors, "description_max_length")}
+        >
+          <ControlLabel>JIRA Issue description maximum length <small class="text-muted">(Optional)</small></ControlLabel>
+          <FormControl
+            name="description_max_length"
+            type="number"
+            value={config.description_max_length === undefined ? 32000 : config.description_max_length}
+            min="0"
+            onChange={this.handleNumberChange}
+          />
+          <HelpBlock>Backlog messages stop being added to the description once it reaches this many characters, the rest is counted in an "N more messages omitted" line. Jira rejects descriptions over 32767 characters by default. Set to 0 for no limit.</HelpBlock>
+        </FormGroup>
+        <FormGroup controlId="notification-backlog-attachment">
+          <Checkbox
+            name="backlog_attachment"
+            checked={config.backlog_attachment || false}
+            onChange={this.handleCheckboxChange}
+          >
+            Attach backlog as file
+          </Checkbox>
+          <HelpBlock>Backlog messages are uploaded to the created issue as gzipped NDJSON file (backlog.ndjson.gz) instead of being rendered in the description. The description gets the message count and a Graylog search link.</HelpBlock>
+        </FormGroup>
 
         <h3>Duplicate issue handling</h3>
         <br/>
@@ -257,7 +306,7 @@ class JiraNotificationForm extends React.Component {
             value={config.search_graylog_hash_field || ""}
             onChange={this.handleChange}
           />
-          <HelpBlock>Pair value custom field id to it's name in GUI e.g. 'customfield_123=Graylog hash'. Leave blank to turn off duplicate searching.</HelpBlock>
+          <HelpBlock>Pair value custom field id to it's name in GUI e.g. 'customfield_123=Graylog hash', or the custom field id alone. The name alone works when the Jira metadata cache is enabled on the server. Leave blank to turn off duplicate searching.</HelpBlock>
         </FormGroup>
         <FormGroup
           controlId="notification-search-graylog-hash-regex"
@@ -272,6 +321,22 @@ class JiraNotificationForm extends React.Component {
           />
           <HelpBlock>Regex for extracting part of issue description, which can be used to detect duplicate issues. If absent and graylog hash field is filled, then whole description will be used.</HelpBlock>
         </FormGroup>
+        <FormGroup
+          controlId="notification-graylog-hash-algorithm"
+          validationState={this.getValidationState(validationErrors, "graylog_hash_algorithm")}
+        >
+          <ControlLabel>Graylog hash algorithm</ControlLabel>
+          <FormControl
+            name="graylog_hash_algorithm"
+            componentClass="select"
+            value={config.graylog_hash_algorithm || "MD5"}
+            onChange={this.handleChange}
+          >
+            <option value="MD5">MD5</option>
+            <option value="MURMUR3_128">MURMUR3_128</option>
+          </FormControl>
+          <HelpBlock>Hash stored in the Graylog hash custom field. MURMUR3_128 is faster, but issues created with MD5 hash are no longer found as duplicates after switching.</HelpBlock>
+        </FormGroup>
         <FormGroup
           controlId="notification-search-filter-jql"
           validationState={this.getValidationState(validationErrors, "search_filter_jql")}
@@ -298,6 +363,80 @@ class JiraNotificationForm extends React.Component {
           />
           <HelpBlock>Comment to add to found duplicate issue. Event and message fields are accessible (just like in issue description). Leave blank to disable commenting.</HelpBlock>
         </FormGroup>
+
+        <h3>Alert storm handling</h3>
+        <br/>
+        <FormGroup
+          controlId="notification-coalesce-window-seconds"
+          validationState={this.getValidationState(validationErrors, "coalesce_window_seconds")}
+        >
+          <ControlLabel>Coalesce window (seconds) <small class="text-muted">(Optional)</small></ControlLabel>
+          <FormControl
+            name="coalesce_window_seconds"
+            type="number"
+            value={config.coalesce_window_seconds || 0}
+            min="0"
+            onChange={this.handleNumberChange}
+          />
+          <HelpBlock>Events with the same Graylog hash fired within this window are sent as one issue or comment carrying the occurrence count. Use together with the description regex. Set to 0 to send every event immediately.</HelpBlock>
+        </FormGroup>
+        <FormGroup
+          controlId="notification-duplicate-mode"
+          validationState={this.getValidationState(validationErrors, "duplicate_mode")}
+        >
+          <ControlLabel>Duplicate handling</ControlLabel>
+          <FormControl
+            name="duplicate_mode"
+            componentClass="select"
+            value={config.duplicate_mode || "COMMENT"}
+            onChange={this.handleChange}
+          >
+            <option value="COMMENT">COMMENT</option>
+            <option value="DIGEST">DIGEST</option>
+            <option value="COUNTER">COUNTER</option>
+          </FormControl>
+          <HelpBlock>COMMENT adds a comment for every duplicate event. DIGEST counts duplicates and adds one summary comment per flush interval. COUNTER writes the occurrence count and last seen time to the custom fields below per flush interval instead of commenting.</HelpBlock>
+        </FormGroup>
+        <FormGroup
+          controlId="notification-duplicate-flush-seconds"
+          validationState={this.getValidationState(validationErrors, "duplicate_flush_seconds")}
+        >
+          <ControlLabel>Duplicate flush interval (seconds)</ControlLabel>
+          <FormControl
+            name="duplicate_flush_seconds"
+            type="number"
+            value={config.duplicate_flush_seconds === undefined ? 300 : config.duplicate_flush_seconds}
+            min="1"
+            onChange={this.handleNumberChange}
+          />
+          <HelpBlock>How long duplicates of an issue are counted before DIGEST or COUNTER writes them to Jira.</HelpBlock>
+        </FormGroup>
+        <FormGroup
+          controlId="notification-occurrence-count-field"
+          validationState={this.getValidationState(validationErrors, "occurrence_count_field")}
+        >
+          <ControlLabel>Occurrence count custom field <small class="text-muted">(Optional)</small></ControlLabel>
+          <FormControl
+            name="occurrence_count_field"
+            type="text"
+            value={config.occurrence_count_field || ""}
+            onChange={this.handleChange}
+          />
+          <HelpBlock>Id of a number custom field e.g. 'customfield_456', increased by the number of duplicates in COUNTER mode.</HelpBlock>
+        </FormGroup>
+        <FormGroup
+          controlId="notification-last-seen-field"
+          validationState={this.getValidationState(validationErrors, "last_seen_field")}
+        >
+          <ControlLabel>Last seen custom field <small class="text-muted">(Optional)</small></ControlLabel>
+          <FormControl
+            name="last_seen_field"
+            type="text"
+            value={config.last_seen_field || ""}
+            onChange={this.handleChange}
+          />
+          <HelpBlock>Id of a date time custom field e.g. 'customfield_789', set to the time of the last duplicate in COUNTER mode.</HelpBlock>
+        </FormGroup>
       </React.Fragment>
     );
   }
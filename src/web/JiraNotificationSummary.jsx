@@ -31,6 +31,10 @@ class JiraNotificationSummary extends React.Component {
             <td>Graylog URL</td>
             <td>{notification.config.graylog_url}</td>
           </tr>
+          <tr>
+            <td>Authentication</td>
+            <td>{notification.config.auth_type}</td>
+          </tr>
           <tr>
             <td>Credentials username</td>
             <td>{notification.config.cred_username}</td>
@@ -80,6 +84,14 @@ class JiraNotificationSummary extends React.Component {
             <td>Issue description</td>
             <td>{notification.config.issue_description}</td>
           </tr>
+          <tr>
+            <td>Issue description maximum length</td>
+            <td>{notification.config.description_max_length}</td>
+          </tr>
+          <tr>
+            <td>Attach backlog as file</td>
+            <td>{notification.config.backlog_attachment ? "Yes" : "No"}</td>
+          </tr>
           <tr>
             <td>Search for duplicate issues custom field</td>
             <td>{notification.config.search_graylog_hash_field}</td>
@@ -88,6 +100,10 @@ class JiraNotificationSummary extends React.Component {
             <td>Search for duplicate issues description regex</td>
             <td>{notification.config.search_graylog_hash_regex}</td>
           </tr>
+          <tr>
+            <td>Graylog hash algorithm</td>
+            <td>{notification.config.graylog_hash_algorithm}</td>
+          </tr>
           <tr>
             <td>JQL filter for duplicate issues search</td>
             <td>{notification.config.search_filter_jql}</td>
@@ -96,6 +112,26 @@ class JiraNotificationSummary extends React.Component {
             <td>Comment inserted in duplicate found issue</td>
             <td>{notification.config.duplicate_issue_comment}</td>
           </tr>
+          <tr>
+            <td>Coalesce window (seconds)</td>
+            <td>{notification.config.coalesce_window_seconds}</td>
+          </tr>
+          <tr>
+            <td>Duplicate handling</td>
+            <td>{notification.config.duplicate_mode}</td>
+          </tr>
+          <tr>
+            <td>Duplicate flush interval (seconds)</td>
+            <td>{notification.config.duplicate_flush_seconds}</td>
+          </tr>
+          <tr>
+            <td>Occurrence count custom field</td>
+            <td>{notification.config.occurrence_count_field}</td>
+          </tr>
+          <tr>
+            <td>Last seen custom field</td>
+            <td>{notification.config.last_seen_field}</td>
+          </tr>
         </React.Fragment>
       </CommonNotificationSummary>
     );